@@ -0,0 +1,128 @@
+package com.defimore.crypto.ui;
+
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import com.defimore.crypto.util.FixedPointFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the fixed-point price formatting with the DecimalFormat code it replaced.
+ * The single price benchmarks format one value, the line benchmarks build the whole status bar
+ * text for ten symbols. Run with {@code gradle jmh}, which adds the GC profiler so every result
+ * comes with its allocated bytes per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceFormattingBenchmark {
+
+    private static final List<String> SYMBOLS = List.of("BTC", "ETH", "BNB", "SOL", "XRP", "DOGE", "ADA", "TRX", "AVAX", "LINK");
+    private static final long[] UNSCALED = {10870012000000L, 245012340000L, 61234000000L, 15109000000L, 52340000L,
+            16234000L, 45120000L, 12780000L, 2834000000L, 1452000000L};
+    private static final int SCALE = 8; // Binance ticker prices have eight decimals
+
+    @Param({"2", "8"})
+    public int fractionDigits;
+
+    private FixedPointFormatter formatter;
+    private final char[] buffer = new char[FixedPointFormatter.MAX_CHARS];
+    private Map<String, BigDecimal> prices;
+    private PriceTable table;
+    private PriceTable changedTable; // Same prices except BTC
+    private PriceLineRenderer renderer;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        formatter = new FixedPointFormatter(fractionDigits, false);
+
+        SymbolDictionary dictionary = new SymbolDictionary();
+        PriceTable.Builder builder = PriceTable.empty(dictionary).toBuilder(1);
+        prices = new HashMap<>();
+        for (int i = 0; i < SYMBOLS.size(); i++) {
+            builder.put(dictionary.intern(SYMBOLS.get(i)), UNSCALED[i], SCALE);
+            prices.put(SYMBOLS.get(i), BigDecimal.valueOf(UNSCALED[i], SCALE));
+        }
+        table = builder.build();
+        changedTable = table.toBuilder(2).put(dictionary.indexOf("BTC"), UNSCALED[0] + 1_000_000L, SCALE).build();
+
+        renderer = new PriceLineRenderer();
+    }
+
+    @Benchmark
+    public String decimalFormatPrice() {
+        DecimalFormat format = newDecimalFormat();
+        return format.format(BigDecimal.valueOf(UNSCALED[0], SCALE));
+    }
+
+    @Benchmark
+    public int fixedPointPrice() {
+        return formatter.format(UNSCALED[0], SCALE, buffer, 0);
+    }
+
+    /**
+     * The status bar text as it was built before the renderer, once per update.
+     */
+    @Benchmark
+    public String decimalFormatLine() {
+        StringBuilder sb = new StringBuilder();
+        DecimalFormat format = newDecimalFormat();
+        boolean first = true;
+        for (String symbol : SYMBOLS) {
+            BigDecimal price = prices.get(symbol);
+            if (price != null) {
+                if (!first) {
+                    sb.append(" | ");
+                }
+                sb.append(symbol).append(": ").append(format.format(price));
+                first = false;
+            }
+        }
+        return "₿ " + sb;
+    }
+
+    /**
+     * Prices unchanged since the last render, the common case between ticks.
+     */
+    @Benchmark
+    public String rendererLineUnchanged() {
+        return renderer.render(SYMBOLS, table, fractionDigits, "₿ ", "");
+    }
+
+    /**
+     * One price changed since the last render, so one segment and the line String are rebuilt.
+     */
+    @Benchmark
+    public String rendererLineOneChanged() {
+        flip = !flip;
+        return renderer.render(SYMBOLS, flip ? changedTable : table, fractionDigits, "₿ ", "");
+    }
+
+    private DecimalFormat newDecimalFormat() {
+        DecimalFormat format = new DecimalFormat();
+        format.setMaximumFractionDigits(fractionDigits);
+        format.setMinimumFractionDigits(0);
+        format.setGroupingUsed(false);
+        return format;
+    }
+}
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.util.List;
 
 /**
  * Configurable for the crypto price plugin settings.
@@ -76,6 +77,13 @@ public class CryptoPluginConfigurable implements Configurable {
             return;
         }
         
+        // A mistyped source would be ignored without notice
+        List<String> unknownSources = configPanel.getUnknownPriceSources();
+        if (!unknownSources.isEmpty()) {
+            throw new ConfigurationException("Unknown price sources: " + String.join(", ", unknownSources)
+                    + ". Available: " + String.join(", ", SimpleCryptoConfigPanel.getAvailablePriceSources()));
+        }
+        
         // Fast save without excessive validation
         CryptoPluginConfig newConfig = configPanel.saveConfig();
         getConfigService().saveConfig(newConfig);
@@ -0,0 +1,18 @@
+package com.defimore.crypto;
+
+import com.defimore.crypto.service.PriceHub;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Starts the price services in the background after a project has opened.
+ * Runs for every project, but the hub only starts once per application.
+ */
+public class CryptoPriceStartupActivity implements StartupActivity.Background {
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        PriceHub.getInstance().start();
+    }
+}
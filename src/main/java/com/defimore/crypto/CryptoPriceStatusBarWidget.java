@@ -1,8 +1,15 @@
 package com.defimore.crypto;
 
+import com.defimore.crypto.model.Candle;
 import com.defimore.crypto.model.CryptoPluginConfig;
+import com.defimore.crypto.model.Timeframe;
 import com.defimore.crypto.service.*;
-import com.defimore.crypto.service.*;
+import com.defimore.crypto.ui.PriceRenderModel;
+import com.defimore.crypto.ui.RenderedPrices;
+import com.defimore.crypto.ui.RepaintPipeline;
+import com.defimore.crypto.util.FixedPointFormatter;
+import com.defimore.crypto.util.StartupMetrics;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.options.ShowSettingsUtil;
 import com.intellij.openapi.project.Project;
@@ -20,125 +27,37 @@ import org.jetbrains.annotations.Nullable;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Status bar widget for displaying crypto prices.
+ * The text is rendered once for all windows by the shared {@link PriceRenderModel}; the widget only
+ * repaints when a new result is published.
  */
-public class CryptoPriceStatusBarWidget implements StatusBarWidget, PriceUpdateListener, ConfigChangeListener {
+public class CryptoPriceStatusBarWidget implements StatusBarWidget {
 
     private final Project project;
-    private final PriceService priceService;
-    private final ConfigurationService configService;
+    private final PriceRenderModel renderModel;
+    private final RepaintPipeline<RenderedPrices> repaintPipeline;
+    private final Disposable renderSubscription;
     private StatusBar statusBar;
-    private String currentText = "₿ Loading...";
-    private boolean isOnline = false;
-    private boolean hasError = false;
+    private String currentText = "₿ Loading..."; // EDT only
+    private FixedPointFormatter popupFormatter; // EDT only
     private volatile boolean isDisposed = false;
 
     public CryptoPriceStatusBarWidget(Project project) {
+        long startTime = System.nanoTime();
         this.project = project;
-        this.priceService = PriceServiceFactory.getInstance();
-        this.configService = ConfigurationServiceFactory.getInstance();
-
-        // Set initial text
-        this.currentText = "₿ Loading...";
-
-        // Register listeners
-        priceService.addPriceUpdateListener(this);
-        configService.addConfigChangeListener(this);
-
-        // Initialize widget with minimal delay, but do heavy work later
-        ApplicationManager.getApplication().invokeLater(() -> {
-            if (!isDisposed) {
-                // Show cached data immediately if available
-                Map<String, BigDecimal> cachedPrices = priceService.getCachedPrices();
-                if (!cachedPrices.isEmpty()) {
-                    updateDisplayText(cachedPrices);
-                    updateStatusBar();
-                }
-                
-                // Schedule heavy initialization for later
-                ApplicationManager.getApplication().executeOnPooledThread(() -> {
-                    try {
-                        Thread.sleep(3000); // 3 second delay
-                        if (!isDisposed) {
-                            initializeWidget();
-                        }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                });
-            }
-        });
-    }
+        this.renderModel = PriceRenderModel.getInstance();
+        this.repaintPipeline = new RepaintPipeline<>(this::renderPrices, this::paintPrices);
 
-    /**
-     * Initialize the widget after services are ready.
-     */
-    private void initializeWidget() {
-        try {
-            // Show cached data first if available
-            Map<String, BigDecimal> cachedPrices = priceService.getCachedPrices();
-            if (!cachedPrices.isEmpty()) {
-                onPricesUpdated(cachedPrices, false);
-            }
-
-            // Delay network operations to avoid blocking EDT
-            ApplicationManager.getApplication().executeOnPooledThread(() -> {
-                try {
-                    if (!isDisposed) {
-                        // Start price updates in background
-                        priceService.startPeriodicUpdates();
-
-                        // Initial fetch with delay to avoid startup impact
-                        Thread.sleep(2000); // 2 second delay
-                        
-                        if (!isDisposed) {
-                            CryptoPluginConfig config = configService.getConfig();
-                            if (config != null && !config.getSymbols().isEmpty()) {
-                                priceService.fetchPrices(config.getSymbols()).whenComplete((prices, throwable) -> {
-                                    if (!isDisposed) {
-                                        if (throwable == null && prices != null && !prices.isEmpty()) {
-                                            onPricesUpdated(prices, true);
-                                        } else {
-                                            ApplicationManager.getApplication().invokeLater(() -> {
-                                                if (!isDisposed) {
-                                                    currentText = "₿ Connection Error";
-                                                    updateStatusBar();
-                                                }
-                                            });
-                                        }
-                                    }
-                                });
-                            } else {
-                                ApplicationManager.getApplication().invokeLater(() -> {
-                                    if (!isDisposed) {
-                                        currentText = "₿ No symbols configured";
-                                        updateStatusBar();
-                                    }
-                                });
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    ApplicationManager.getApplication().invokeLater(() -> {
-                        if (!isDisposed) {
-                            System.err.println("Error initializing crypto price widget: " + e.getMessage());
-                            currentText = "₿ Initialization Error";
-                            updateStatusBar();
-                        }
-                    });
-                }
-            });
-        } catch (Exception e) {
-            System.err.println("Error setting up crypto price widget: " + e.getMessage());
-            currentText = "₿ Setup Error";
-            updateStatusBar();
-        }
+        // Only a shell during project open; the model attaches to the services once they are started
+        this.renderSubscription = renderModel.subscribe(repaintPipeline::request);
+        repaintPipeline.request();
+        StartupMetrics.recordWidgetShell(System.nanoTime() - startTime);
     }
 
     @Override
@@ -156,8 +75,7 @@ public class CryptoPriceStatusBarWidget implements StatusBarWidget, PriceUpdateL
 
             @Override
             public @Nullable String getTooltipText() {
-                String status = hasError ? "Error" : (isOnline ? "Live" : "Cached");
-                return "Crypto prices (" + status + ")";
+                return renderModel.getCurrent().getTooltip();
             }
 
             @Override
@@ -181,123 +99,24 @@ public class CryptoPriceStatusBarWidget implements StatusBarWidget, PriceUpdateL
     public void dispose() {
         isDisposed = true;
 
-        // Clean up listeners
-        priceService.removePriceUpdateListener(this);
-        configService.removeConfigChangeListener(this);
-
-        // Stop price updates if this is the last widget
-        priceService.stopPeriodicUpdates();
+        // Detach from the shared model; updates stop only when the last widget leaves
+        renderSubscription.dispose();
     }
 
-    @Override
-    public void onPricesUpdated(Map<String, BigDecimal> prices, boolean isOnline) {
-        if (isDisposed) return;
-
-        this.isOnline = isOnline;
-        this.hasError = false;
-
-        ApplicationManager.getApplication().invokeLater(() -> {
-            if (!isDisposed) {
-                updateDisplayText(prices);
-                updateStatusBar();
-            }
-        });
-    }
-
-    @Override
-    public void onPriceUpdateFailed(Exception error) {
-        if (isDisposed) return;
-
-        this.isOnline = false;
-        this.hasError = true;
-
-        ApplicationManager.getApplication().invokeLater(() -> {
-            if (!isDisposed) {
-                // Try to show cached prices
-                Map<String, BigDecimal> cachedPrices = priceService.getCachedPrices();
-                if (!cachedPrices.isEmpty()) {
-                    updateDisplayText(cachedPrices);
-                } else {
-                    currentText = "₿ Connection Error";
-                }
-                updateStatusBar();
-            }
-        });
-    }
-
-    @Override
-    public void onConfigChanged(CryptoPluginConfig oldConfig, CryptoPluginConfig newConfig) {
-        if (isDisposed) return;
-
-        // Configuration changed, fetch new prices immediately
-        ApplicationManager.getApplication().invokeLater(() -> {
-            if (!isDisposed) {
-                // First update display with cached data if available
-                Map<String, BigDecimal> cachedPrices = priceService.getCachedPrices();
-                if (!cachedPrices.isEmpty()) {
-                    updateDisplayText(cachedPrices);
-                    updateStatusBar();
-                }
-
-                // Then fetch fresh data for the new symbols
-                if (!newConfig.getSymbols().isEmpty()) {
-                    priceService.fetchPrices(newConfig.getSymbols()).whenComplete((prices, throwable) -> {
-                        if (!isDisposed) {
-                            if (throwable == null && prices != null && !prices.isEmpty()) {
-                                onPricesUpdated(prices, true);
-                            } else {
-                                // Show error or cached data
-                                ApplicationManager.getApplication().invokeLater(() -> {
-                                    if (!isDisposed) {
-                                        currentText = "₿ Error fetching new symbols";
-                                        updateStatusBar();
-                                    }
-                                });
-                            }
-                        }
-                    });
-                }
-            }
-        });
+    /**
+     * Get the shared rendered result. Called on the EDT by the repaint pipeline.
+     * @return Result to show, or null to leave the widget unchanged
+     */
+    private RenderedPrices renderPrices() {
+        return isDisposed ? null : renderModel.getCurrent();
     }
 
     /**
-     * Update the display text based on current prices and configuration.
+     * Show a changed text or status. Called on the EDT by the repaint pipeline.
      */
-    private void updateDisplayText(Map<String, BigDecimal> prices) {
-        CryptoPluginConfig config = configService.getConfig();
-
-        if (prices.isEmpty()) {
-            currentText = "No Data";
-            return;
-        }
-
-        StringBuilder sb = new StringBuilder();
-        DecimalFormat formatter = new DecimalFormat();
-        formatter.setMaximumFractionDigits(config.getFractionDigits());
-        formatter.setMinimumFractionDigits(0);
-        formatter.setGroupingUsed(false);
-
-        boolean first = true;
-        for (String symbol : config.getSymbols()) {
-            BigDecimal price = prices.get(symbol);
-            if (price != null) {
-                if (!first) {
-                    sb.append(" | ");
-                }
-                sb.append(symbol).append(": ").append(formatter.format(price));
-                first = false;
-            }
-        }
-
-        if (sb.length() == 0) {
-            currentText = "₿ No Data";
-        } else {
-            currentText = "₿ " + sb.toString();
-            if (!isOnline && !hasError) {
-                currentText += " (Cached)";
-            }
-        }
+    private void paintPrices(RenderedPrices prices) {
+        currentText = prices.getText();
+        updateStatusBar();
     }
 
     /**
@@ -339,30 +158,35 @@ public class CryptoPriceStatusBarWidget implements StatusBarWidget, PriceUpdateL
      */
     private void showDetailPopup(MouseEvent mouseEvent) {
         try {
+            PriceService priceService = renderModel.getPriceService();
+            if (priceService == null) {
+                return; // Not started yet
+            }
             Map<String, BigDecimal> prices = priceService.getCachedPrices();
-            CryptoPluginConfig config = configService.getConfig();
+            CryptoPluginConfig config = ConfigurationServiceFactory.getInstance().getConfig();
 
             if (prices.isEmpty()) {
                 return;
             }
 
             List<String> items = new ArrayList<>();
-            DecimalFormat formatter = new DecimalFormat();
-            formatter.setMaximumFractionDigits(config.getFractionDigits());
-            formatter.setMinimumFractionDigits(0);
-            formatter.setGroupingUsed(true);
+            FixedPointFormatter formatter = popupFormatter;
+            if (formatter == null || formatter.getFractionDigits() != config.getFractionDigits()) {
+                formatter = new FixedPointFormatter(config.getFractionDigits(), true);
+                popupFormatter = formatter;
+            }
 
             for (String symbol : config.getSymbols()) {
                 BigDecimal price = prices.get(symbol);
                 if (price != null) {
-                    items.add(symbol + ": " + formatter.format(price) + " " + config.getStableSymbol());
+                    items.add(symbol + ": " + formatter.format(price) + " " + config.getStableSymbol()
+                            + formatDayChange(priceService, symbol, price));
                 }
             }
 
             if (!items.isEmpty()) {
-                String status = hasError ? "Error" : (isOnline ? "Live" : "Cached");
                 items.add(""); // Separator
-                items.add("Status: " + status);
+                items.add("Status: " + renderModel.getCurrent().getStatus());
 
                 BaseListPopupStep<String> step = new BaseListPopupStep<String>("Crypto Prices", items) {
                     @Override
@@ -385,6 +209,22 @@ public class CryptoPriceStatusBarWidget implements StatusBarWidget, PriceUpdateL
         }
     }
 
+    /**
+     * Format the change since the open of the current daily candle, e.g. " (+1.25% 1d)".
+     * @return Formatted change, or an empty string if there is no daily candle yet
+     */
+    private String formatDayChange(PriceService priceService, String symbol, BigDecimal price) {
+        Candle day = priceService.getCandles().getCurrent(symbol, Timeframe.ONE_DAY);
+        if (day == null || day.getOpen().signum() == 0) {
+            return "";
+        }
+
+        BigDecimal percent = price.subtract(day.getOpen())
+                .multiply(BigDecimal.valueOf(100))
+                .divide(day.getOpen(), 2, RoundingMode.HALF_UP);
+        return " (" + (percent.signum() >= 0 ? "+" : "") + percent.toPlainString() + "% " + Timeframe.ONE_DAY.getLabel() + ")";
+    }
+
     /**
      * Show context menu with actions.
      */
@@ -429,7 +269,11 @@ public class CryptoPriceStatusBarWidget implements StatusBarWidget, PriceUpdateL
      * Refresh prices immediately.
      */
     private void refreshPrices() {
-        CryptoPluginConfig config = configService.getConfig();
+        PriceService priceService = renderModel.getPriceService();
+        if (priceService == null) {
+            return; // Not started yet
+        }
+        CryptoPluginConfig config = ConfigurationServiceFactory.getInstance().getConfig();
         priceService.fetchPrices(config.getSymbols()).whenComplete((prices, throwable) -> {
             // Update will be handled by the listener
         });
@@ -452,6 +296,9 @@ public class CryptoPriceStatusBarWidget implements StatusBarWidget, PriceUpdateL
         info.add("");
         info.add("Displays real-time cryptocurrency prices");
         info.add("in the IDE status bar.");
+        info.add("");
+        info.add(StartupMetrics.getSummary());
+        info.add(RepaintPipeline.getSummary());
 
         BaseListPopupStep<String> step = new BaseListPopupStep<String>("About", info) {
             @Override
@@ -2,6 +2,7 @@ package com.defimore.crypto;
 
 import com.defimore.crypto.service.ConfigurationService;
 import com.defimore.crypto.service.ConfigurationServiceFactory;
+import com.defimore.crypto.service.PriceHub;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.StatusBar;
 import com.intellij.openapi.wm.StatusBarWidget;
@@ -48,14 +49,13 @@ public class CryptoPriceWidgetFactory implements StatusBarWidgetFactory {
     
     @Override
     public boolean canBeEnabledOn(@NotNull StatusBar statusBar) {
-        // Check if the widget should be shown based on configuration
-        try {
-            ConfigurationService configService = ConfigurationServiceFactory.getInstance();
-            return configService.getConfig().isShowInStatusBar();
-        } catch (Exception e) {
-            // If there's an error getting config, default to true
+        // Called during project open: only consult the configuration once the services have
+        // started, so loading it never adds to project open time. The settings panel always
+        // enables the widget, so true is the right answer before that.
+        if (!PriceHub.getInstance().isReady()) {
             return true;
         }
+        return isWidgetEnabled();
     }
     
     /**
@@ -2,10 +2,13 @@ package com.defimore.crypto;
 
 import com.defimore.crypto.service.ConfigurationService;
 import com.defimore.crypto.service.ConfigurationServiceFactory;
+import com.defimore.crypto.service.PriceHub;
 import com.defimore.crypto.service.PriceService;
-import com.defimore.crypto.service.PriceServiceFactory;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import org.jetbrains.annotations.NotNull;
 
@@ -16,40 +19,64 @@ public class RefreshPricesAction extends AnAction {
     
     @Override
     public void actionPerformed(@NotNull AnActionEvent e) {
+        PriceHub hub = PriceHub.getInstance();
+        if (!hub.isReady()) {
+            return; // The startup activity has not created the services yet
+        }
+        
+        // The event is only valid during this call, so keep just the project
+        Project project = e.getProject();
+        
+        // Runs on a pooled thread with the started service, never creating it on the EDT
+        hub.whenReady(priceService -> refresh(project, priceService));
+    }
+    
+    private static void refresh(Project project, PriceService priceService) {
         try {
             ConfigurationService configService = ConfigurationServiceFactory.getInstance();
-            PriceService priceService = PriceServiceFactory.getInstance();
             
             // Fetch prices immediately
             priceService.fetchPrices(configService.getConfig().getSymbols())
-                    .whenComplete((prices, throwable) -> {
+                    .whenComplete((prices, throwable) -> ApplicationManager.getApplication().invokeLater(() -> {
                         if (throwable != null) {
                             Messages.showErrorDialog(
-                                    e.getProject(),
+                                    dialogParent(project),
                                     "Failed to refresh prices: " + throwable.getMessage(),
                                     "Crypto Price Refresh Error"
                             );
                         } else {
                             Messages.showInfoMessage(
-                                    e.getProject(),
+                                    dialogParent(project),
                                     "Prices refreshed successfully!",
                                     "Crypto Price Refresh"
                             );
                         }
-                    });
+                    }));
                     
         } catch (Exception ex) {
-            Messages.showErrorDialog(
-                    e.getProject(),
+            ApplicationManager.getApplication().invokeLater(() -> Messages.showErrorDialog(
+                    dialogParent(project),
                     "Error refreshing prices: " + ex.getMessage(),
                     "Crypto Price Error"
-            );
+            ));
         }
     }
     
+    /**
+     * Get the project to show a dialog for, or null once it has been closed.
+     */
+    private static Project dialogParent(Project project) {
+        return project != null && !project.isDisposed() ? project : null;
+    }
+    
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT; // update() only reads PriceHub state
+    }
+    
     @Override
     public void update(@NotNull AnActionEvent e) {
-        // Always enable the action
-        e.getPresentation().setEnabled(true);
+        // Enabled once the services have started
+        e.getPresentation().setEnabled(PriceHub.getInstance().isReady());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.defimore.crypto.model;
+
+import com.defimore.crypto.util.FixedPoint;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable OHLC candle with fixed-point prices.
+ */
+public final class Candle {
+
+    private final Timeframe timeframe;
+    private final long openTime;
+    private final long openUnscaled;
+    private final int openScale;
+    private final long highUnscaled;
+    private final int highScale;
+    private final long lowUnscaled;
+    private final int lowScale;
+    private final long closeUnscaled;
+    private final int closeScale;
+    private final int tickCount;
+
+    Candle(Timeframe timeframe, long openTime,
+           long openUnscaled, int openScale, long highUnscaled, int highScale,
+           long lowUnscaled, int lowScale, long closeUnscaled, int closeScale, int tickCount) {
+        this.timeframe = timeframe;
+        this.openTime = openTime;
+        this.openUnscaled = openUnscaled;
+        this.openScale = openScale;
+        this.highUnscaled = highUnscaled;
+        this.highScale = highScale;
+        this.lowUnscaled = lowUnscaled;
+        this.lowScale = lowScale;
+        this.closeUnscaled = closeUnscaled;
+        this.closeScale = closeScale;
+        this.tickCount = tickCount;
+    }
+
+    public Timeframe getTimeframe() {
+        return timeframe;
+    }
+
+    /**
+     * Get the start of the candle's bucket in epoch milliseconds.
+     */
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    /**
+     * Get the end of the candle's bucket in epoch milliseconds, exclusive.
+     */
+    public long getCloseTime() {
+        return openTime + timeframe.getMillis();
+    }
+
+    public BigDecimal getOpen() {
+        return FixedPoint.toBigDecimal(openUnscaled, openScale);
+    }
+
+    public BigDecimal getHigh() {
+        return FixedPoint.toBigDecimal(highUnscaled, highScale);
+    }
+
+    public BigDecimal getLow() {
+        return FixedPoint.toBigDecimal(lowUnscaled, lowScale);
+    }
+
+    public BigDecimal getClose() {
+        return FixedPoint.toBigDecimal(closeUnscaled, closeScale);
+    }
+
+    public long getOpenUnscaled() {
+        return openUnscaled;
+    }
+
+    public int getOpenScale() {
+        return openScale;
+    }
+
+    public long getHighUnscaled() {
+        return highUnscaled;
+    }
+
+    public int getHighScale() {
+        return highScale;
+    }
+
+    public long getLowUnscaled() {
+        return lowUnscaled;
+    }
+
+    public int getLowScale() {
+        return lowScale;
+    }
+
+    public long getCloseUnscaled() {
+        return closeUnscaled;
+    }
+
+    public int getCloseScale() {
+        return closeScale;
+    }
+
+    /**
+     * Get the number of ticks aggregated into this candle.
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Candle{" +
+               "timeframe=" + timeframe.getLabel() +
+               ", openTime=" + openTime +
+               ", open=" + getOpen() +
+               ", high=" + getHigh() +
+               ", low=" + getLow() +
+               ", close=" + getClose() +
+               ", ticks=" + tickCount +
+               '}';
+    }
+}
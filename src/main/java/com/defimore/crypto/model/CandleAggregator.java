@@ -0,0 +1,221 @@
+package com.defimore.crypto.model;
+
+import com.defimore.crypto.util.FixedPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental OHLC candle aggregation for all {@link Timeframe}s.
+ * Each tick updates only the open candle of every timeframe, in O(1) and without allocating;
+ * a candle object is created only when a bucket closes. A bounded number of closed candles is
+ * kept per symbol and timeframe for charts.
+ */
+public class CandleAggregator {
+
+    public static final int DEFAULT_CLOSED_CANDLES = 120;
+
+    private static final Timeframe[] TIMEFRAMES = Timeframe.values();
+
+    private final SymbolDictionary dictionary;
+    private final int closedCandles;
+    private final Object seriesLock = new Object();
+    private volatile SymbolCandles[] series = new SymbolCandles[0];
+
+    public CandleAggregator(SymbolDictionary dictionary) {
+        this(dictionary, DEFAULT_CLOSED_CANDLES);
+    }
+
+    public CandleAggregator(SymbolDictionary dictionary, int closedCandles) {
+        this.dictionary = dictionary;
+        this.closedCandles = Math.max(1, closedCandles);
+    }
+
+    public SymbolDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Add a tick to the open candle of every timeframe. Ticks older than a timeframe's open
+     * candle are ignored for that timeframe.
+     * @param id Symbol id from the dictionary
+     * @param timestamp Epoch milliseconds
+     * @param unscaled Unscaled fixed-point price
+     * @param scale Scale of the price
+     */
+    public void onTick(int id, long timestamp, long unscaled, int scale) {
+        if (id < 0) {
+            return;
+        }
+        seriesFor(id).add(timestamp, unscaled, scale);
+    }
+
+    /**
+     * Add one tick per price in the table, using each entry's fetch time.
+     */
+    public void onTable(PriceTable table) {
+        for (int id = 0; id < table.capacity(); id++) {
+            if (table.has(id)) {
+                onTick(id, table.getTimestamp(id), table.getUnscaled(id), table.getScale(id));
+            }
+        }
+    }
+
+    /**
+     * Get the open candle of a symbol.
+     * @return Candle, or null if the symbol has no ticks
+     */
+    public Candle getCurrent(int id, Timeframe timeframe) {
+        SymbolCandles candles = seriesOrNull(id);
+        return candles == null ? null : candles.current(timeframe.ordinal());
+    }
+
+    /**
+     * Get the open candle of a symbol.
+     * @return Candle, or null if the symbol has no ticks
+     */
+    public Candle getCurrent(String symbol, Timeframe timeframe) {
+        return getCurrent(dictionary.indexOf(symbol), timeframe);
+    }
+
+    /**
+     * Get the newest candles of a symbol, oldest first, ending with the open candle.
+     * @param id Symbol id
+     * @param timeframe Timeframe
+     * @param count Maximum number of candles
+     * @return Candles, empty if the symbol has no ticks
+     */
+    public List<Candle> getRecent(int id, Timeframe timeframe, int count) {
+        SymbolCandles candles = seriesOrNull(id);
+        return candles == null ? Collections.emptyList() : candles.recent(timeframe.ordinal(), count);
+    }
+
+    /**
+     * Remove all candles.
+     */
+    public void clear() {
+        synchronized (seriesLock) {
+            series = new SymbolCandles[0];
+        }
+    }
+
+    private SymbolCandles seriesOrNull(int id) {
+        SymbolCandles[] current = series;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    private SymbolCandles seriesFor(int id) {
+        SymbolCandles candles = seriesOrNull(id);
+        if (candles != null) {
+            return candles;
+        }
+
+        synchronized (seriesLock) {
+            SymbolCandles[] current = series;
+            if (id >= current.length) {
+                SymbolCandles[] grown = new SymbolCandles[Math.max(id + 1, Math.max(dictionary.size(), current.length * 2))];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if (current[id] == null) {
+                current[id] = new SymbolCandles(closedCandles);
+            }
+            series = current; // Publish the new slot
+            return current[id];
+        }
+    }
+
+    /**
+     * Open candles of one symbol in primitive columns indexed by timeframe ordinal,
+     * plus a ring of closed candles per timeframe.
+     */
+    private static final class SymbolCandles {
+
+        private final long[] openTime = new long[TIMEFRAMES.length];
+        private final long[] open = new long[TIMEFRAMES.length];
+        private final byte[] openScale = new byte[TIMEFRAMES.length];
+        private final long[] high = new long[TIMEFRAMES.length];
+        private final byte[] highScale = new byte[TIMEFRAMES.length];
+        private final long[] low = new long[TIMEFRAMES.length];
+        private final byte[] lowScale = new byte[TIMEFRAMES.length];
+        private final long[] close = new long[TIMEFRAMES.length];
+        private final byte[] closeScale = new byte[TIMEFRAMES.length];
+        private final int[] ticks = new int[TIMEFRAMES.length]; // 0 marks no open candle
+
+        private final Candle[][] closed;
+        private final int[] closedHead = new int[TIMEFRAMES.length];
+        private final int[] closedSize = new int[TIMEFRAMES.length];
+
+        private SymbolCandles(int closedCandles) {
+            this.closed = new Candle[TIMEFRAMES.length][closedCandles];
+        }
+
+        synchronized void add(long timestamp, long unscaled, int scale) {
+            for (int tf = 0; tf < TIMEFRAMES.length; tf++) {
+                long bucket = TIMEFRAMES[tf].bucketStart(timestamp);
+                if (ticks[tf] > 0 && bucket < openTime[tf]) {
+                    continue; // Late tick for an already closed bucket
+                }
+
+                if (ticks[tf] == 0 || bucket > openTime[tf]) {
+                    if (ticks[tf] > 0) {
+                        pushClosed(tf, current(tf));
+                    }
+                    openTime[tf] = bucket;
+                    open[tf] = unscaled;
+                    openScale[tf] = (byte) scale;
+                    high[tf] = unscaled;
+                    highScale[tf] = (byte) scale;
+                    low[tf] = unscaled;
+                    lowScale[tf] = (byte) scale;
+                    ticks[tf] = 0;
+                } else {
+                    if (FixedPoint.compare(unscaled, scale, high[tf], highScale[tf]) > 0) {
+                        high[tf] = unscaled;
+                        highScale[tf] = (byte) scale;
+                    }
+                    if (FixedPoint.compare(unscaled, scale, low[tf], lowScale[tf]) < 0) {
+                        low[tf] = unscaled;
+                        lowScale[tf] = (byte) scale;
+                    }
+                }
+                close[tf] = unscaled;
+                closeScale[tf] = (byte) scale;
+                ticks[tf]++;
+            }
+        }
+
+        synchronized Candle current(int tf) {
+            if (ticks[tf] == 0) {
+                return null;
+            }
+            return new Candle(TIMEFRAMES[tf], openTime[tf], open[tf], openScale[tf], high[tf], highScale[tf],
+                    low[tf], lowScale[tf], close[tf], closeScale[tf], ticks[tf]);
+        }
+
+        synchronized List<Candle> recent(int tf, int count) {
+            Candle open = current(tf);
+            int fromClosed = Math.max(0, Math.min(closedSize[tf], count - (open != null ? 1 : 0)));
+            List<Candle> result = new ArrayList<>(fromClosed + 1);
+            Candle[] ring = closed[tf];
+            int oldest = (closedHead[tf] - closedSize[tf] + ring.length) % ring.length;
+            for (int i = closedSize[tf] - fromClosed; i < closedSize[tf]; i++) {
+                result.add(ring[(oldest + i) % ring.length]);
+            }
+            if (open != null && count > 0) {
+                result.add(open);
+            }
+            return result;
+        }
+
+        private void pushClosed(int tf, Candle candle) {
+            Candle[] ring = closed[tf];
+            ring[closedHead[tf]] = candle;
+            closedHead[tf] = (closedHead[tf] + 1) % ring.length;
+            if (closedSize[tf] < ring.length) {
+                closedSize[tf]++;
+            }
+        }
+    }
+}
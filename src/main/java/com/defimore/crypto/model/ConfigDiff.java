@@ -0,0 +1,144 @@
+package com.defimore.crypto.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Difference between two configurations, grouped by what a change requires:
+ * a new transport, new subscriptions, a new polling interval, or only a re-render.
+ */
+public final class ConfigDiff {
+
+    private final List<String> addedSymbols;
+    private final List<String> removedSymbols;
+    private final boolean symbolOrderChanged;
+    private final boolean transportChanged;
+    private final boolean intervalChanged;
+    private final boolean historyChanged;
+    private final boolean sourcesChanged;
+    private final boolean displayChanged;
+
+    private ConfigDiff(List<String> addedSymbols, List<String> removedSymbols, boolean symbolOrderChanged,
+                       boolean transportChanged, boolean intervalChanged, boolean historyChanged,
+                       boolean sourcesChanged, boolean displayChanged) {
+        this.addedSymbols = addedSymbols;
+        this.removedSymbols = removedSymbols;
+        this.symbolOrderChanged = symbolOrderChanged;
+        this.transportChanged = transportChanged;
+        this.intervalChanged = intervalChanged;
+        this.historyChanged = historyChanged;
+        this.sourcesChanged = sourcesChanged;
+        this.displayChanged = displayChanged;
+    }
+
+    /**
+     * Compare two configurations.
+     * @param oldConfig Previous configuration, or null if there was none
+     * @param newConfig New configuration
+     * @return Difference; everything counts as changed when there is no previous configuration
+     */
+    public static ConfigDiff between(CryptoPluginConfig oldConfig, CryptoPluginConfig newConfig) {
+        if (oldConfig == null) {
+            return new ConfigDiff(new ArrayList<>(newConfig.getSymbols()), Collections.emptyList(),
+                    true, true, true, true, true, true);
+        }
+
+        Set<String> oldSymbols = new LinkedHashSet<>(oldConfig.getSymbols());
+        Set<String> newSymbols = new LinkedHashSet<>(newConfig.getSymbols());
+        List<String> added = new ArrayList<>(newSymbols);
+        added.removeAll(oldSymbols);
+        List<String> removed = new ArrayList<>(oldSymbols);
+        removed.removeAll(newSymbols);
+
+        // A different quote currency, transport or fetch mode changes every trading pair and request
+        boolean transportChanged = !Objects.equals(oldConfig.getStableSymbol(), newConfig.getStableSymbol())
+                || oldConfig.isStreamingEnabled() != newConfig.isStreamingEnabled()
+                || oldConfig.isFullMarketSnapshot() != newConfig.isFullMarketSnapshot();
+        boolean displayChanged = oldConfig.getFractionDigits() != newConfig.getFractionDigits()
+                || oldConfig.isShowIcon() != newConfig.isShowIcon()
+                || oldConfig.isShowInStatusBar() != newConfig.isShowInStatusBar();
+
+        return new ConfigDiff(added, removed,
+                !oldConfig.getSymbols().equals(newConfig.getSymbols()),
+                transportChanged,
+                oldConfig.getRefreshInterval() != newConfig.getRefreshInterval(),
+                oldConfig.getHistoryCapacity() != newConfig.getHistoryCapacity(),
+                !Objects.equals(oldConfig.getPriceSources(), newConfig.getPriceSources()),
+                displayChanged);
+    }
+
+    /**
+     * Get the symbols that were not configured before, in configuration order.
+     */
+    public List<String> getAddedSymbols() {
+        return addedSymbols;
+    }
+
+    /**
+     * Get the symbols that are no longer configured.
+     */
+    public List<String> getRemovedSymbols() {
+        return removedSymbols;
+    }
+
+    /**
+     * Check if symbols were added, removed or reordered.
+     */
+    public boolean isSymbolsChanged() {
+        return symbolOrderChanged || !addedSymbols.isEmpty() || !removedSymbols.isEmpty();
+    }
+
+    /**
+     * Check if the stable symbol, the streaming mode or the full market snapshot mode changed,
+     * which needs a full restart.
+     */
+    public boolean isTransportChanged() {
+        return transportChanged;
+    }
+
+    public boolean isIntervalChanged() {
+        return intervalChanged;
+    }
+
+    public boolean isHistoryChanged() {
+        return historyChanged;
+    }
+
+    /**
+     * Check if the exchanges prices are read from changed.
+     */
+    public boolean isSourcesChanged() {
+        return sourcesChanged;
+    }
+
+    /**
+     * Check if settings that only affect rendering changed.
+     */
+    public boolean isDisplayChanged() {
+        return displayChanged;
+    }
+
+    /**
+     * Check if the change needs nothing from the price service, only a re-render at most.
+     */
+    public boolean isDisplayOnly() {
+        return !isSymbolsChanged() && !transportChanged && !intervalChanged && !historyChanged && !sourcesChanged;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigDiff{" +
+                "added=" + addedSymbols +
+                ", removed=" + removedSymbols +
+                ", transportChanged=" + transportChanged +
+                ", intervalChanged=" + intervalChanged +
+                ", historyChanged=" + historyChanged +
+                ", sourcesChanged=" + sourcesChanged +
+                ", displayChanged=" + displayChanged +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.defimore.crypto.model;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -17,6 +18,11 @@ public class CryptoPluginConfig {
     public static final int DEFAULT_FRACTION_DIGITS = 3;
     public static final boolean DEFAULT_SHOW_ICON = false;
     public static final boolean DEFAULT_SHOW_IN_STATUS_BAR = true;
+    public static final boolean DEFAULT_STREAMING_ENABLED = false;
+    public static final boolean DEFAULT_FULL_MARKET_SNAPSHOT = false;
+    public static final int DEFAULT_HISTORY_CAPACITY = 1000; // Ticks kept per symbol
+    public static final String BINANCE_SOURCE = "binance"; // Built-in source; others come from exchange providers
+    public static final List<String> DEFAULT_PRICE_SOURCES = Collections.singletonList(BINANCE_SOURCE);
     
     private List<String> symbols;
     private String stableSymbol;
@@ -24,6 +30,10 @@ public class CryptoPluginConfig {
     private int fractionDigits;
     private boolean showIcon;
     private boolean showInStatusBar;
+    private boolean streamingEnabled;
+    private boolean fullMarketSnapshot;
+    private int historyCapacity;
+    private List<String> priceSources;
     
     /**
      * Default constructor with default values.
@@ -35,6 +45,10 @@ public class CryptoPluginConfig {
         this.fractionDigits = DEFAULT_FRACTION_DIGITS;
         this.showIcon = DEFAULT_SHOW_ICON;
         this.showInStatusBar = DEFAULT_SHOW_IN_STATUS_BAR;
+        this.streamingEnabled = DEFAULT_STREAMING_ENABLED;
+        this.fullMarketSnapshot = DEFAULT_FULL_MARKET_SNAPSHOT;
+        this.historyCapacity = DEFAULT_HISTORY_CAPACITY;
+        this.priceSources = DEFAULT_PRICE_SOURCES;
     }
     
     /**
@@ -47,6 +61,10 @@ public class CryptoPluginConfig {
         this.fractionDigits = other.fractionDigits;
         this.showIcon = other.showIcon;
         this.showInStatusBar = other.showInStatusBar;
+        this.streamingEnabled = other.streamingEnabled;
+        this.fullMarketSnapshot = other.fullMarketSnapshot;
+        this.historyCapacity = other.historyCapacity;
+        this.priceSources = other.priceSources;
     }
     
     // Getters and setters
@@ -98,6 +116,41 @@ public class CryptoPluginConfig {
         this.showInStatusBar = showInStatusBar;
     }
     
+    public boolean isStreamingEnabled() {
+        return streamingEnabled;
+    }
+    
+    public void setStreamingEnabled(boolean streamingEnabled) {
+        this.streamingEnabled = streamingEnabled;
+    }
+    
+    public boolean isFullMarketSnapshot() {
+        return fullMarketSnapshot;
+    }
+    
+    public void setFullMarketSnapshot(boolean fullMarketSnapshot) {
+        this.fullMarketSnapshot = fullMarketSnapshot;
+    }
+    
+    public int getHistoryCapacity() {
+        return historyCapacity;
+    }
+    
+    public void setHistoryCapacity(int historyCapacity) {
+        this.historyCapacity = historyCapacity;
+    }
+    
+    /**
+     * Get the ids of the exchanges prices are read from. With more than one the median is shown.
+     */
+    public List<String> getPriceSources() {
+        return priceSources;
+    }
+    
+    public void setPriceSources(List<String> priceSources) {
+        this.priceSources = priceSources;
+    }
+    
     /**
      * Validate the configuration values.
      * @return true if configuration is valid
@@ -106,7 +159,9 @@ public class CryptoPluginConfig {
         return symbols != null && !symbols.isEmpty() &&
                stableSymbol != null && !stableSymbol.trim().isEmpty() &&
                refreshInterval >= 1000 && refreshInterval <= 3600000 && // 1 second to 1 hour
-               fractionDigits >= 0 && fractionDigits <= 8;
+               fractionDigits >= 0 && fractionDigits <= 8 &&
+               historyCapacity >= TickHistory.MIN_CAPACITY && historyCapacity <= TickHistory.MAX_CAPACITY &&
+               priceSources != null && !priceSources.isEmpty();
     }
     
     /**
@@ -150,6 +205,24 @@ public class CryptoPluginConfig {
             result.addError("Fraction digits cannot exceed 8");
         }
         
+        // Validate history capacity
+        if (historyCapacity < TickHistory.MIN_CAPACITY) {
+            result.addError("History capacity must be at least " + TickHistory.MIN_CAPACITY + " ticks");
+        } else if (historyCapacity > TickHistory.MAX_CAPACITY) {
+            result.addError("History capacity must be at most " + TickHistory.MAX_CAPACITY + " ticks");
+        }
+        
+        // Validate price sources
+        if (priceSources == null || priceSources.isEmpty()) {
+            result.addError("At least one price source is required");
+        } else {
+            for (String source : priceSources) {
+                if (source == null || !source.trim().matches("^[a-z0-9-]{2,20}$")) {
+                    result.addError("Invalid price source: " + source);
+                }
+            }
+        }
+        
         return result;
     }
     
@@ -197,6 +270,25 @@ public class CryptoPluginConfig {
             sanitized.fractionDigits = 8;
         }
         
+        // Clamp history capacity
+        if (sanitized.historyCapacity < TickHistory.MIN_CAPACITY) {
+            sanitized.historyCapacity = TickHistory.MIN_CAPACITY;
+        } else if (sanitized.historyCapacity > TickHistory.MAX_CAPACITY) {
+            sanitized.historyCapacity = TickHistory.MAX_CAPACITY;
+        }
+        
+        // Sanitize price sources
+        if (sanitized.priceSources != null) {
+            sanitized.priceSources = sanitized.priceSources.stream()
+                    .filter(s -> s != null && !s.trim().isEmpty())
+                    .map(s -> s.trim().toLowerCase())
+                    .distinct()
+                    .collect(Collectors.toList());
+        }
+        if (sanitized.priceSources == null || sanitized.priceSources.isEmpty()) {
+            sanitized.priceSources = DEFAULT_PRICE_SOURCES;
+        }
+        
         return sanitized;
     }
     
@@ -209,13 +301,18 @@ public class CryptoPluginConfig {
                fractionDigits == that.fractionDigits &&
                showIcon == that.showIcon &&
                showInStatusBar == that.showInStatusBar &&
+               streamingEnabled == that.streamingEnabled &&
+               fullMarketSnapshot == that.fullMarketSnapshot &&
+               historyCapacity == that.historyCapacity &&
                Objects.equals(symbols, that.symbols) &&
-               Objects.equals(stableSymbol, that.stableSymbol);
+               Objects.equals(stableSymbol, that.stableSymbol) &&
+               Objects.equals(priceSources, that.priceSources);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(symbols, stableSymbol, refreshInterval, fractionDigits, showIcon, showInStatusBar);
+        return Objects.hash(symbols, stableSymbol, refreshInterval, fractionDigits, showIcon, showInStatusBar,
+                streamingEnabled, fullMarketSnapshot, historyCapacity, priceSources);
     }
     
     @Override
@@ -227,6 +324,10 @@ public class CryptoPluginConfig {
                ", fractionDigits=" + fractionDigits +
                ", showIcon=" + showIcon +
                ", showInStatusBar=" + showInStatusBar +
+               ", streamingEnabled=" + streamingEnabled +
+               ", fullMarketSnapshot=" + fullMarketSnapshot +
+               ", historyCapacity=" + historyCapacity +
+               ", priceSources=" + priceSources +
                '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.defimore.crypto.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Columnar in-memory store for full-market price snapshots.
+ * Symbols are interned in a {@link SymbolDictionary}; prices live in a {@link PriceTable} of
+ * parallel primitive arrays indexed by symbol id, next to the time each price was fetched.
+ * Writers build a new table and publish it atomically, so readers never see a half-written
+ * snapshot and never need a lock.
+ */
+public class MarketSnapshotStore {
+
+    private final SymbolDictionary dictionary;
+    private volatile PriceTable table;
+
+    public MarketSnapshotStore() {
+        this(new SymbolDictionary());
+    }
+
+    public MarketSnapshotStore(SymbolDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.table = PriceTable.empty(dictionary);
+    }
+
+    public SymbolDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Get the latest snapshot as a zero-copy table.
+     */
+    public PriceTable getTable() {
+        return table;
+    }
+
+    /**
+     * Start a new snapshot. Entries not written keep their previous values.
+     * @param timestamp Fetch time in epoch milliseconds for all written entries
+     * @return Writer whose {@link Writer#publish()} makes the snapshot visible
+     */
+    public Writer newWriter(long timestamp) {
+        return new Writer(table.toBuilder(timestamp));
+    }
+
+    /**
+     * Get the price of a trading pair from the latest snapshot.
+     * @param tradingPair Trading pair, e.g. BTCUSDT
+     * @return Price, or null if the pair is not in the snapshot
+     */
+    public BigDecimal getPrice(String tradingPair) {
+        return table.getPrice(tradingPair);
+    }
+
+    /**
+     * Get the time of the most recent snapshot.
+     * @return Epoch milliseconds, or 0 if nothing was published yet
+     */
+    public long getLastUpdate() {
+        return table.getLastUpdate();
+    }
+
+    /**
+     * Get the number of symbols with a price in the latest snapshot.
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Fills a copy of the current table and publishes it.
+     */
+    public final class Writer {
+
+        private final PriceTable.Builder builder;
+
+        private Writer(PriceTable.Builder builder) {
+            this.builder = builder;
+        }
+
+        /**
+         * Write the price of a symbol.
+         * @param id Symbol id from the store's dictionary
+         * @param unscaled Unscaled fixed-point price
+         * @param scale Scale of the price
+         */
+        public void put(int id, long unscaled, int scale) {
+            builder.put(id, unscaled, scale);
+        }
+
+        /**
+         * Make the written prices visible to readers.
+         * @return The published table
+         */
+        public PriceTable publish() {
+            PriceTable published = builder.build();
+            table = published;
+            return published;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.defimore.crypto.model;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free price cache built on immutable, versioned {@link PriceTable} snapshots.
+ * Readers take the current snapshot with a single volatile read and never block or copy.
+ * Writers merge fresh prices into a new snapshot and publish it with compare-and-set, evicting
+ * entries older than the TTL and, above the size limit, the least recently used ones.
+ */
+public class PriceCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100;
+    public static final long DEFAULT_TTL_MS = TimeUnit.HOURS.toMillis(24);
+
+    private final SymbolDictionary dictionary;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final AtomicReference<Snapshot> current;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    // Last read time per symbol id; written racily by readers, which is fine for LRU ordering
+    private volatile long[] accessTimes;
+
+    public PriceCache(SymbolDictionary dictionary) {
+        this(dictionary, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+    }
+
+    public PriceCache(SymbolDictionary dictionary, int maxEntries, long ttlMillis) {
+        this.dictionary = dictionary;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.current = new AtomicReference<>(new Snapshot(0, PriceTable.empty(dictionary)));
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.accessTimes = new long[0];
+    }
+
+    /**
+     * An immutable cache generation.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final PriceTable table;
+
+        private Snapshot(long version, PriceTable table) {
+            this.version = version;
+            this.table = table;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public PriceTable getTable() {
+            return table;
+        }
+    }
+
+    public SymbolDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Get the current snapshot. Wait-free.
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Get the current price table. Wait-free.
+     */
+    public PriceTable getTable() {
+        return current.get().table;
+    }
+
+    /**
+     * Look up a price, counting hits and misses and refreshing the entry's LRU position.
+     * Entries older than the TTL count as misses.
+     * @param symbol Symbol name
+     * @return Price, or null on a miss
+     */
+    public BigDecimal get(String symbol) {
+        return read(current.get().table, symbol);
+    }
+
+    /**
+     * Get a read-only map view of the current snapshot whose lookups go through {@link #get(String)}.
+     */
+    public Map<String, BigDecimal> asMap() {
+        return new CacheView(current.get().table);
+    }
+
+    /**
+     * Merge fetched prices into a new snapshot and publish it.
+     * @param fetched Prices to merge, using this cache's dictionary
+     * @return The published snapshot
+     */
+    public Snapshot update(PriceTable fetched) {
+        while (true) {
+            Snapshot base = current.get();
+            long now = System.currentTimeMillis();
+            PriceTable.Builder builder = base.table.toBuilder(now).putAll(fetched);
+            int evicted = evict(builder, base.table, fetched, now);
+
+            Snapshot next = new Snapshot(base.version + 1, builder.build());
+            if (current.compareAndSet(base, next)) {
+                evictions.addAndGet(evicted);
+                growAccessTimes(next.table.capacity());
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        Snapshot base;
+        do {
+            base = current.get();
+        } while (!current.compareAndSet(base, new Snapshot(base.version + 1, PriceTable.empty(dictionary))));
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Drop expired entries, then the least recently used ones until the size limit holds.
+     * Prices that were just fetched are never evicted.
+     * @return Number of evicted entries
+     */
+    private int evict(PriceTable.Builder builder, PriceTable base, PriceTable fetched, long now) {
+        int evicted = 0;
+        for (int id = 0; id < base.capacity(); id++) {
+            if (base.has(id) && !fetched.has(id) && isExpired(base.getTimestamp(id), now)) {
+                builder.remove(id);
+                evicted++;
+            }
+        }
+
+        long[] times = accessTimes;
+        while (builder.size() > maxEntries) {
+            int victim = -1;
+            long oldest = Long.MAX_VALUE;
+            for (int id = 0; id < base.capacity(); id++) {
+                if (!base.has(id) || fetched.has(id) || !builder.contains(id)) {
+                    continue;
+                }
+                long lastUsed = Math.max(base.getTimestamp(id), id < times.length ? times[id] : 0);
+                if (lastUsed < oldest) {
+                    oldest = lastUsed;
+                    victim = id;
+                }
+            }
+            if (victim < 0) {
+                break; // Only fresh prices left
+            }
+            builder.remove(victim);
+            evicted++;
+        }
+        return evicted;
+    }
+
+    private BigDecimal read(PriceTable table, String symbol) {
+        int id = dictionary.indexOf(symbol);
+        long now = System.currentTimeMillis();
+        if (!table.has(id) || isExpired(table.getTimestamp(id), now)) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        long[] times = accessTimes;
+        if (id < times.length) {
+            times[id] = now;
+        }
+        return table.getPrice(id);
+    }
+
+    private boolean isExpired(long timestamp, long now) {
+        return now - timestamp > ttlMillis;
+    }
+
+    private void growAccessTimes(int capacity) {
+        long[] times = accessTimes;
+        if (times.length < capacity) {
+            long[] grown = new long[capacity];
+            System.arraycopy(times, 0, grown, 0, times.length);
+            accessTimes = grown;
+        }
+    }
+
+    /**
+     * Map view over one snapshot. Lookups are counted; iteration reads the table directly.
+     */
+    private final class CacheView extends AbstractMap<String, BigDecimal> {
+
+        private final PriceTable table;
+
+        private CacheView(PriceTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public BigDecimal get(Object key) {
+            return key instanceof String ? read(table, (String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return table.asMap().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return table.size();
+        }
+
+        @Override
+        public Set<Entry<String, BigDecimal>> entrySet() {
+            return table.asMap().entrySet();
+        }
+    }
+}
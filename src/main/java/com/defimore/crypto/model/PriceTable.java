@@ -0,0 +1,349 @@
+package com.defimore.crypto.model;
+
+import com.defimore.crypto.util.FixedPoint;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Fixed-point price table keyed by interned symbol ids.
+ * Prices are stored as unscaled longs with a per-symbol scale in parallel primitive arrays, next
+ * to the time each price was fetched. A table never changes once built: updates go through a
+ * {@link Builder} that copies the columns, so readers can keep a table as a zero-copy view.
+ * BigDecimal values are only created on demand, through {@link #getPrice(int)} or {@link #asMap()}.
+ */
+public final class PriceTable {
+
+    private final SymbolDictionary dictionary;
+    private final long[] unscaled;
+    private final byte[] scales;
+    private final long[] timestamps;
+    private final int count;
+    private final long lastUpdate;
+
+    private PriceTable(SymbolDictionary dictionary, long[] unscaled, byte[] scales, long[] timestamps,
+                       int count, long lastUpdate) {
+        this.dictionary = dictionary;
+        this.unscaled = unscaled;
+        this.scales = scales;
+        this.timestamps = timestamps;
+        this.count = count;
+        this.lastUpdate = lastUpdate;
+    }
+
+    /**
+     * Create an empty table.
+     * @param dictionary Dictionary the symbol ids belong to
+     * @return Empty table
+     */
+    public static PriceTable empty(SymbolDictionary dictionary) {
+        return new PriceTable(dictionary, new long[0], new byte[0], new long[0], 0, 0);
+    }
+
+    public SymbolDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Check if the table has a price for the symbol id.
+     */
+    public boolean has(int id) {
+        return id >= 0 && id < timestamps.length && timestamps[id] != 0;
+    }
+
+    public long getUnscaled(int id) {
+        return has(id) ? unscaled[id] : 0;
+    }
+
+    public int getScale(int id) {
+        return has(id) ? scales[id] : 0;
+    }
+
+    /**
+     * Get the time a symbol's price was fetched.
+     * @return Epoch milliseconds, or 0 if the symbol has no price
+     */
+    public long getTimestamp(int id) {
+        return has(id) ? timestamps[id] : 0;
+    }
+
+    /**
+     * Get a price as BigDecimal.
+     * @param id Symbol id
+     * @return Price, or null if the symbol has no price
+     */
+    public BigDecimal getPrice(int id) {
+        return has(id) ? FixedPoint.toBigDecimal(unscaled[id], scales[id]) : null;
+    }
+
+    /**
+     * Get a price as BigDecimal.
+     * @param symbol Symbol name
+     * @return Price, or null if the symbol has no price
+     */
+    public BigDecimal getPrice(String symbol) {
+        return getPrice(dictionary.indexOf(symbol));
+    }
+
+    /**
+     * Get the number of symbols with a price.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get the number of id slots; valid ids with a price are below this value.
+     */
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Get the time of the update that built this table.
+     * @return Epoch milliseconds, or 0 for an empty table
+     */
+    public long getLastUpdate() {
+        return lastUpdate;
+    }
+
+    /**
+     * Start an update based on this table.
+     * @param timestamp Fetch time in epoch milliseconds for prices written without their own time
+     * @return Builder holding a copy of the columns
+     */
+    public Builder toBuilder(long timestamp) {
+        return new Builder(this, timestamp);
+    }
+
+    /**
+     * Get a read-only map view of all prices. No data is copied; BigDecimals are created on access.
+     */
+    public Map<String, BigDecimal> asMap() {
+        return new MapView(null);
+    }
+
+    /**
+     * Get a read-only map view restricted to the given symbols.
+     * @param symbols Symbol names to include
+     */
+    public Map<String, BigDecimal> asMap(List<String> symbols) {
+        int[] ids = new int[symbols.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dictionary.indexOf(symbols.get(i));
+        }
+        return new MapView(ids);
+    }
+
+    /**
+     * Copies the columns of a table and writes prices into the copy.
+     * Not thread-safe; a builder must not be used after {@link #build()}.
+     */
+    public static final class Builder {
+
+        private final SymbolDictionary dictionary;
+        private final long timestamp;
+        private long[] unscaled;
+        private byte[] scales;
+        private long[] timestamps;
+        private int count;
+
+        private Builder(PriceTable base, long timestamp) {
+            this.dictionary = base.dictionary;
+            this.timestamp = timestamp;
+            int capacity = Math.max(base.capacity(), dictionary.size());
+            this.unscaled = copyOf(base.unscaled, capacity);
+            this.scales = copyOf(base.scales, capacity);
+            this.timestamps = copyOf(base.timestamps, capacity);
+            this.count = base.count;
+        }
+
+        /**
+         * Write a price fetched at the builder's timestamp.
+         */
+        public Builder put(int id, long unscaledValue, int scale) {
+            return put(id, unscaledValue, scale, timestamp);
+        }
+
+        /**
+         * Write a price with its own fetch time.
+         */
+        public Builder put(int id, long unscaledValue, int scale, long fetchedAt) {
+            ensureCapacity(id + 1);
+            if (timestamps[id] == 0) {
+                count++;
+            }
+            unscaled[id] = unscaledValue;
+            scales[id] = (byte) scale;
+            timestamps[id] = fetchedAt;
+            return this;
+        }
+
+        /**
+         * Copy all prices of another table that uses the same dictionary.
+         */
+        public Builder putAll(PriceTable other) {
+            for (int id = 0; id < other.capacity(); id++) {
+                if (other.has(id)) {
+                    put(id, other.unscaled[id], other.scales[id], other.timestamps[id]);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Remove the price of a symbol.
+         */
+        public Builder remove(int id) {
+            if (id >= 0 && id < timestamps.length && timestamps[id] != 0) {
+                timestamps[id] = 0;
+                count--;
+            }
+            return this;
+        }
+
+        public boolean contains(int id) {
+            return id >= 0 && id < timestamps.length && timestamps[id] != 0;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public PriceTable build() {
+            return new PriceTable(dictionary, unscaled, scales, timestamps, count, timestamp);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > timestamps.length) {
+                int newCapacity = Math.max(capacity, Math.max(dictionary.size(), timestamps.length * 2));
+                unscaled = copyOf(unscaled, newCapacity);
+                scales = copyOf(scales, newCapacity);
+                timestamps = copyOf(timestamps, newCapacity);
+            }
+        }
+
+        private static long[] copyOf(long[] source, int capacity) {
+            long[] copy = new long[capacity];
+            System.arraycopy(source, 0, copy, 0, Math.min(source.length, capacity));
+            return copy;
+        }
+
+        private static byte[] copyOf(byte[] source, int capacity) {
+            byte[] copy = new byte[capacity];
+            System.arraycopy(source, 0, copy, 0, Math.min(source.length, capacity));
+            return copy;
+        }
+    }
+
+    /**
+     * Map adapter for code that still works with {@code Map<String, BigDecimal>}.
+     */
+    private final class MapView extends AbstractMap<String, BigDecimal> {
+
+        private final int[] ids; // null for all ids
+        private final int size;
+
+        private MapView(int[] ids) {
+            this.ids = ids;
+            if (ids == null) {
+                this.size = count;
+            } else {
+                int present = 0;
+                for (int id : ids) {
+                    if (has(id)) {
+                        present++;
+                    }
+                }
+                this.size = present;
+            }
+        }
+
+        @Override
+        public BigDecimal get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int id = dictionary.indexOf((String) key);
+            return includes(id) ? getPrice(id) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && includes(dictionary.indexOf((String) key));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, BigDecimal>> entrySet() {
+            return new AbstractSet<Entry<String, BigDecimal>>() {
+                @Override
+                public Iterator<Entry<String, BigDecimal>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private boolean includes(int id) {
+            if (!has(id)) {
+                return false;
+            }
+            if (ids == null) {
+                return true;
+            }
+            for (int candidate : ids) {
+                if (candidate == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private final class EntryIterator implements Iterator<Entry<String, BigDecimal>> {
+
+            private int position = advance(0);
+
+            @Override
+            public boolean hasNext() {
+                return position < limit();
+            }
+
+            @Override
+            public Entry<String, BigDecimal> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int id = ids == null ? position : ids[position];
+                position = advance(position + 1);
+                return new SimpleImmutableEntry<>(dictionary.nameOf(id), getPrice(id));
+            }
+
+            private int limit() {
+                return ids == null ? capacity() : ids.length;
+            }
+
+            private int advance(int from) {
+                int next = from;
+                while (next < limit() && !has(ids == null ? next : ids[next])) {
+                    next++;
+                }
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.defimore.crypto.model;
+
+/**
+ * Append-only dictionary that interns symbols to dense integer ids (0, 1, 2, ...).
+ * Lookups work directly on character buffers, so parsers can resolve symbols without creating
+ * Strings. Reads are lock-free; only inserting a new symbol takes the lock.
+ */
+public class SymbolDictionary {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Object lock = new Object();
+    private volatile Table table;
+    private volatile int size;
+
+    public SymbolDictionary() {
+        this.table = new Table(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Get the id of a symbol, adding it if it is not known yet.
+     * @param symbol Symbol, e.g. BTCUSDT
+     * @return Symbol id
+     */
+    public int intern(String symbol) {
+        char[] chars = symbol.toCharArray();
+        return intern(chars, 0, chars.length);
+    }
+
+    /**
+     * Get the id of a symbol given as a character range, adding it if it is not known yet.
+     * @return Symbol id
+     */
+    public int intern(char[] buf, int off, int len) {
+        int id = indexOf(buf, off, len);
+        if (id >= 0) {
+            return id;
+        }
+
+        synchronized (lock) {
+            id = indexOf(buf, off, len);
+            if (id >= 0) {
+                return id;
+            }
+
+            id = size;
+            Table current = table;
+            if ((id + 1) * 2 > current.slots.length) {
+                current = current.resize(id);
+                table = current;
+            }
+            char[] key = new char[len];
+            System.arraycopy(buf, off, key, 0, len);
+            current.insert(id, key, new String(key), hash(buf, off, len));
+            size = id + 1; // Publishes the new entry to lock-free readers
+            return id;
+        }
+    }
+
+    /**
+     * Look up a symbol without adding it.
+     * @return Symbol id, or -1 if the symbol is unknown
+     */
+    public int indexOf(String symbol) {
+        int visible = size; // Read first: every id below it is fully written
+        Table current = table;
+        int mask = current.slots.length - 1;
+        int slot = hash(symbol) & mask;
+        int entry;
+        while ((entry = current.slots[slot]) != 0) {
+            int id = entry - 1;
+            if (id < visible && symbol.equals(current.names[id])) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Look up a symbol given as a character range without adding it.
+     * @return Symbol id, or -1 if the symbol is unknown
+     */
+    public int indexOf(char[] buf, int off, int len) {
+        int visible = size; // Read first: every id below it is fully written
+        Table current = table;
+        int mask = current.slots.length - 1;
+        int slot = hash(buf, off, len) & mask;
+        int entry;
+        while ((entry = current.slots[slot]) != 0) {
+            int id = entry - 1;
+            if (id < visible && matches(current.keys[id], buf, off, len)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the symbol for an id.
+     * @param id Symbol id
+     * @return Symbol name
+     */
+    public String nameOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown symbol id: " + id);
+        }
+        return table.names[id];
+    }
+
+    /**
+     * Get the number of interned symbols. Valid ids are 0 to size - 1.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static boolean matches(char[] key, char[] buf, int off, int len) {
+        if (key == null || key.length != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (key[i] != buf[off + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(char[] buf, int off, int len) {
+        int h = 0;
+        for (int i = off; i < off + len; i++) {
+            h = 31 * h + buf[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(String symbol) {
+        int h = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            h = 31 * h + symbol.charAt(i);
+        }
+        return h ^ (h >>> 16); // Same as the character buffer hash
+    }
+
+    /**
+     * Open-addressing slots plus the key and name columns indexed by id.
+     */
+    private static final class Table {
+
+        private final int[] slots; // id + 1, 0 marks an empty slot
+        private final char[][] keys;
+        private final String[] names;
+
+        private Table(int capacity) {
+            this.slots = new int[capacity];
+            this.keys = new char[capacity / 2][];
+            this.names = new String[capacity / 2];
+        }
+
+        private void insert(int id, char[] key, String name, int hash) {
+            keys[id] = key;
+            names[id] = name;
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+
+        private Table resize(int count) {
+            Table resized = new Table(slots.length * 2);
+            for (int id = 0; id < count; id++) {
+                char[] key = keys[id];
+                resized.insert(id, key, names[id], hash(key, 0, key.length));
+            }
+            return resized;
+        }
+    }
+}
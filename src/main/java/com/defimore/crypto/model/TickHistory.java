@@ -0,0 +1,301 @@
+package com.defimore.crypto.model;
+
+import com.defimore.crypto.util.FixedPoint;
+
+import java.math.BigDecimal;
+
+/**
+ * Bounded per-symbol price history.
+ * Each symbol gets a ring buffer of (timestamp, fixed-point price) ticks in primitive arrays, so
+ * memory stays at a fixed ceiling of capacity ticks per symbol no matter how long the IDE runs.
+ * Range queries copy into a caller-owned {@link Range} and do not box or allocate once the range
+ * has grown to its working size.
+ */
+public class TickHistory {
+
+    public static final int MIN_CAPACITY = 16;
+    public static final int MAX_CAPACITY = 100000;
+
+    private final SymbolDictionary dictionary;
+    private final Object ringsLock = new Object();
+    private volatile Ring[] rings = new Ring[0];
+    private volatile int capacity;
+
+    public TickHistory(SymbolDictionary dictionary, int capacity) {
+        this.dictionary = dictionary;
+        this.capacity = clampCapacity(capacity);
+    }
+
+    public SymbolDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Change the number of ticks kept per symbol. The newest ticks are kept when shrinking.
+     */
+    public void setCapacity(int newCapacity) {
+        synchronized (ringsLock) {
+            capacity = clampCapacity(newCapacity);
+            for (Ring ring : rings) {
+                if (ring != null) {
+                    ring.resize(capacity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Append a tick. Ticks older than the newest tick of the symbol are ignored, so each ring
+     * stays ordered by time.
+     * @param id Symbol id from the dictionary
+     * @param timestamp Epoch milliseconds
+     * @param unscaled Unscaled fixed-point price
+     * @param scale Scale of the price
+     */
+    public void record(int id, long timestamp, long unscaled, int scale) {
+        if (id < 0) {
+            return;
+        }
+        ringFor(id).add(timestamp, unscaled, scale);
+    }
+
+    /**
+     * Append one tick per price in the table, using each entry's fetch time.
+     */
+    public void recordAll(PriceTable table) {
+        for (int id = 0; id < table.capacity(); id++) {
+            if (table.has(id)) {
+                record(id, table.getTimestamp(id), table.getUnscaled(id), table.getScale(id));
+            }
+        }
+    }
+
+    /**
+     * Get the number of ticks stored for a symbol.
+     */
+    public int size(int id) {
+        Ring ring = ringOrNull(id);
+        return ring == null ? 0 : ring.size();
+    }
+
+    /**
+     * Copy the newest ticks of a symbol, oldest first.
+     * @param id Symbol id
+     * @param count Maximum number of ticks
+     * @param out Range to fill; its previous content is replaced
+     * @return Number of ticks copied
+     */
+    public int last(int id, int count, Range out) {
+        out.clear();
+        Ring ring = ringOrNull(id);
+        return ring == null ? 0 : ring.copyLast(count, out);
+    }
+
+    /**
+     * Copy the ticks of a symbol at or after a point in time, oldest first.
+     * @param id Symbol id
+     * @param fromMillis Epoch milliseconds, inclusive
+     * @param out Range to fill; its previous content is replaced
+     * @return Number of ticks copied
+     */
+    public int since(int id, long fromMillis, Range out) {
+        out.clear();
+        Ring ring = ringOrNull(id);
+        return ring == null ? 0 : ring.copySince(fromMillis, out);
+    }
+
+    /**
+     * Remove all ticks.
+     */
+    public void clear() {
+        synchronized (ringsLock) {
+            rings = new Ring[0];
+        }
+    }
+
+    private Ring ringOrNull(int id) {
+        Ring[] current = rings;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    private Ring ringFor(int id) {
+        Ring ring = ringOrNull(id);
+        if (ring != null) {
+            return ring;
+        }
+
+        synchronized (ringsLock) {
+            Ring[] current = rings;
+            if (id >= current.length) {
+                Ring[] grown = new Ring[Math.max(id + 1, Math.max(dictionary.size(), current.length * 2))];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if (current[id] == null) {
+                current[id] = new Ring(capacity);
+            }
+            rings = current; // Publish the new slot
+            return current[id];
+        }
+    }
+
+    private static int clampCapacity(int capacity) {
+        return Math.max(MIN_CAPACITY, Math.min(MAX_CAPACITY, capacity));
+    }
+
+    /**
+     * Ring buffer of one symbol's ticks.
+     */
+    private static final class Ring {
+
+        private long[] timestamps;
+        private long[] unscaled;
+        private byte[] scales;
+        private int head; // Slot of the next write
+        private int size;
+
+        private Ring(int capacity) {
+            this.timestamps = new long[capacity];
+            this.unscaled = new long[capacity];
+            this.scales = new byte[capacity];
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void add(long timestamp, long unscaledValue, int scale) {
+            if (size > 0 && timestamp < timestamps[slot(size - 1)]) {
+                return;
+            }
+            timestamps[head] = timestamp;
+            unscaled[head] = unscaledValue;
+            scales[head] = (byte) scale;
+            head = (head + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+        }
+
+        synchronized int copyLast(int count, Range out) {
+            int n = Math.max(0, Math.min(count, size));
+            return copy(size - n, n, out);
+        }
+
+        synchronized int copySince(long fromMillis, Range out) {
+            // Binary search for the first tick at or after fromMillis
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[slot(mid)] < fromMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return copy(low, size - low, out);
+        }
+
+        synchronized void resize(int capacity) {
+            int keep = Math.min(size, capacity);
+            long[] newTimestamps = new long[capacity];
+            long[] newUnscaled = new long[capacity];
+            byte[] newScales = new byte[capacity];
+            for (int i = 0; i < keep; i++) {
+                int from = slot(size - keep + i);
+                newTimestamps[i] = timestamps[from];
+                newUnscaled[i] = unscaled[from];
+                newScales[i] = scales[from];
+            }
+            timestamps = newTimestamps;
+            unscaled = newUnscaled;
+            scales = newScales;
+            size = keep;
+            head = keep % capacity;
+        }
+
+        /**
+         * Copy ticks by logical position, where 0 is the oldest tick.
+         */
+        private int copy(int from, int count, Range out) {
+            out.ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                int source = slot(from + i);
+                out.timestamps[i] = timestamps[source];
+                out.unscaled[i] = unscaled[source];
+                out.scales[i] = scales[source];
+            }
+            out.size = count;
+            return count;
+        }
+
+        /**
+         * Map a logical position to an array slot.
+         */
+        private int slot(int position) {
+            int oldest = size < timestamps.length ? 0 : head;
+            return (oldest + position) % timestamps.length;
+        }
+    }
+
+    /**
+     * Reusable result buffer for range queries. Not thread-safe; keep one per reader.
+     */
+    public static final class Range {
+
+        private long[] timestamps = new long[0];
+        private long[] unscaled = new long[0];
+        private byte[] scales = new byte[0];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public long getTimestamp(int index) {
+            checkIndex(index);
+            return timestamps[index];
+        }
+
+        public long getUnscaled(int index) {
+            checkIndex(index);
+            return unscaled[index];
+        }
+
+        public int getScale(int index) {
+            checkIndex(index);
+            return scales[index];
+        }
+
+        /**
+         * Get a tick's price as BigDecimal. Allocates; prefer the fixed-point accessors in loops.
+         */
+        public BigDecimal getPrice(int index) {
+            checkIndex(index);
+            return FixedPoint.toBigDecimal(unscaled[index], scales[index]);
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (timestamps.length < capacity) {
+                timestamps = new long[capacity];
+                unscaled = new long[capacity];
+                scales = new byte[capacity];
+            }
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of range [0, " + size + ")");
+            }
+        }
+    }
+}
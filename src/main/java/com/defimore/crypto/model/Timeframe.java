@@ -0,0 +1,40 @@
+package com.defimore.crypto.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candle timeframes. Buckets are aligned to UTC epoch boundaries.
+ */
+public enum Timeframe {
+
+    ONE_MINUTE("1m", TimeUnit.MINUTES.toMillis(1)),
+    FIVE_MINUTES("5m", TimeUnit.MINUTES.toMillis(5)),
+    FIFTEEN_MINUTES("15m", TimeUnit.MINUTES.toMillis(15)),
+    ONE_HOUR("1h", TimeUnit.HOURS.toMillis(1)),
+    ONE_DAY("1d", TimeUnit.DAYS.toMillis(1));
+
+    private final String label;
+    private final long millis;
+
+    Timeframe(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Get the start of the bucket containing a point in time.
+     * @param timestamp Epoch milliseconds
+     * @return Bucket start in epoch milliseconds
+     */
+    public long bucketStart(long timestamp) {
+        return Math.floorDiv(timestamp, millis) * millis;
+    }
+}
@@ -1,118 +1,200 @@
 package com.defimore.crypto.service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Manages error recovery and fallback strategies for the price service.
+ * <p>
+ * Works as a lock-free circuit breaker: after {@link #MAX_CONSECUTIVE_FAILURES} failures the circuit
+ * opens and requests are rejected. Once the open period has passed, exactly one caller is let through
+ * as a probe (half-open); its success closes the circuit, its failure opens it again. All timing uses
+ * {@link System#nanoTime()}, so wall clock jumps have no effect.
  */
 public class ErrorRecoveryManager {
-    
+
     private static final int MAX_CONSECUTIVE_FAILURES = 3;
-    private static final int FALLBACK_MODE_DURATION_MINUTES = 5;
+    private static final long DEFAULT_OPEN_DURATION_MS = 30000; // 30 seconds
     private static final long BASE_RETRY_DELAY_MS = 1000; // 1 second
     private static final long MAX_RETRY_DELAY_MS = 30000; // 30 seconds
-    
-    private int consecutiveFailures = 0;
-    private LocalDateTime lastSuccessTime;
-    private LocalDateTime fallbackModeStartTime;
-    private boolean inFallbackMode = false;
-    
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * State of the circuit.
+     */
+    public enum State {
+        /** Requests flow normally */
+        CLOSED,
+        /** Requests are rejected until the open period has passed */
+        OPEN,
+        /** One probe request is in flight */
+        HALF_OPEN
+    }
+
+    /**
+     * Decision for one request.
+     */
+    public enum Permission {
+        /** Send the request as usual */
+        ALLOWED,
+        /** Send one small probe request before resuming traffic */
+        PROBE,
+        /** Do not send anything; the circuit is open */
+        REJECTED
+    }
+
+    private final long openDurationNanos;
+    private final AtomicReference<Circuit> circuit = new AtomicReference<>(new Circuit(State.CLOSED, 0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long lastSuccessNanos = NEVER;
+    private volatile long lastSuccessEpochMillis; // Display only
+
+    public ErrorRecoveryManager() {
+        this(DEFAULT_OPEN_DURATION_MS);
+    }
+
+    /**
+     * @param openDurationMs Time the circuit stays open before a probe is let through
+     */
+    public ErrorRecoveryManager(long openDurationMs) {
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+    }
+
+    /**
+     * Decide whether a request may be sent. Only one caller gets {@link Permission#PROBE} per open
+     * period; the caller must report the outcome through {@link #onSuccess()} or {@link #handleError(Exception)}.
+     * @return Permission for this request
+     */
+    public Permission acquirePermission() {
+        while (true) {
+            Circuit current = circuit.get();
+            if (current.state == State.CLOSED) {
+                return Permission.ALLOWED;
+            }
+            // While half-open a probe is in flight; a probe that never reported is replaced
+            if (System.nanoTime() - current.since < openDurationNanos) {
+                return Permission.REJECTED;
+            }
+            if (circuit.compareAndSet(current, new Circuit(State.HALF_OPEN, System.nanoTime()))) {
+                return Permission.PROBE;
+            }
+            // Lost the race; re-read the state
+        }
+    }
+
     /**
      * Handle an error occurrence.
      * @param error The error that occurred
      */
     public void handleError(Exception error) {
-        consecutiveFailures++;
-        
-        if (consecutiveFailures >= MAX_CONSECUTIVE_FAILURES && !inFallbackMode) {
-            switchToFallbackMode();
+        int failures = consecutiveFailures.incrementAndGet();
+
+        while (true) {
+            Circuit current = circuit.get();
+            boolean open = current.state == State.HALF_OPEN
+                    || (current.state == State.CLOSED && failures >= MAX_CONSECUTIVE_FAILURES);
+            if (!open || circuit.compareAndSet(current, new Circuit(State.OPEN, System.nanoTime()))) {
+                return;
+            }
         }
     }
-    
+
     /**
      * Handle a successful operation.
      */
     public void onSuccess() {
-        consecutiveFailures = 0;
-        lastSuccessTime = LocalDateTime.now();
-        
-        if (inFallbackMode) {
-            exitFallbackMode();
+        consecutiveFailures.set(0);
+        lastSuccessNanos = System.nanoTime();
+        lastSuccessEpochMillis = System.currentTimeMillis();
+
+        Circuit current = circuit.get();
+        if (current.state != State.CLOSED) {
+            circuit.compareAndSet(current, new Circuit(State.CLOSED, System.nanoTime()));
         }
     }
-    
+
     /**
-     * Check if currently in fallback mode.
+     * Get the state of the circuit.
+     */
+    public State getState() {
+        return circuit.get().state;
+    }
+
+    /**
+     * Check if currently in fallback mode, i.e. the circuit is not closed.
      * @return true if in fallback mode
      */
     public boolean isInFallbackMode() {
-        // Check if fallback mode should be automatically exited
-        if (inFallbackMode && fallbackModeStartTime != null) {
-            long minutesInFallback = ChronoUnit.MINUTES.between(fallbackModeStartTime, LocalDateTime.now());
-            if (minutesInFallback >= FALLBACK_MODE_DURATION_MINUTES) {
-                exitFallbackMode();
-            }
-        }
-        
-        return inFallbackMode;
+        return circuit.get().state != State.CLOSED;
     }
-    
+
     /**
      * Get the number of consecutive failures.
      * @return Number of consecutive failures
      */
     public int getConsecutiveFailures() {
-        return consecutiveFailures;
+        return consecutiveFailures.get();
     }
-    
+
     /**
      * Get the time of the last successful operation.
      * @return Last success time, or null if never succeeded
      */
     public LocalDateTime getLastSuccessTime() {
-        return lastSuccessTime;
+        if (lastSuccessNanos == NEVER) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSuccessEpochMillis), ZoneId.systemDefault());
     }
-    
+
     /**
-     * Calculate the retry delay based on consecutive failures (exponential backoff).
+     * Calculate the retry delay based on consecutive failures (exponential backoff with jitter).
+     * Half of the delay is randomized so many clients do not retry at the same moment.
      * @return Retry delay in milliseconds
      */
     public long getRetryDelay() {
-        if (consecutiveFailures == 0) {
+        int failures = consecutiveFailures.get();
+        if (failures == 0) {
             return 0;
         }
-        
+
         // Exponential backoff: base * 2^(failures-1)
-        long delay = BASE_RETRY_DELAY_MS * (1L << Math.min(consecutiveFailures - 1, 5)); // Cap at 2^5
-        return Math.min(delay, MAX_RETRY_DELAY_MS);
+        long delay = BASE_RETRY_DELAY_MS * (1L << Math.min(failures - 1, 5)); // Cap at 2^5
+        delay = Math.min(delay, MAX_RETRY_DELAY_MS);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
     }
-    
+
     /**
      * Check if data is considered stale based on last success time.
      * @param staleThresholdMinutes Minutes after which data is considered stale
      * @return true if data is stale
      */
     public boolean isDataStale(int staleThresholdMinutes) {
-        if (lastSuccessTime == null) {
+        long lastSuccess = lastSuccessNanos;
+        if (lastSuccess == NEVER) {
             return true;
         }
-        
-        long minutesSinceLastSuccess = ChronoUnit.MINUTES.between(lastSuccessTime, LocalDateTime.now());
-        return minutesSinceLastSuccess > staleThresholdMinutes;
+
+        return minutesSince(lastSuccess) > staleThresholdMinutes;
     }
-    
+
     /**
      * Get a user-friendly status message.
      * @return Status message
      */
     public String getStatusMessage() {
-        if (inFallbackMode) {
+        long lastSuccess = lastSuccessNanos;
+        if (isInFallbackMode()) {
             return "Offline - Using cached data";
-        } else if (consecutiveFailures > 0) {
+        } else if (consecutiveFailures.get() > 0) {
             return "Connection issues - Retrying...";
-        } else if (lastSuccessTime != null) {
-            long minutesAgo = ChronoUnit.MINUTES.between(lastSuccessTime, LocalDateTime.now());
+        } else if (lastSuccess != NEVER) {
+            long minutesAgo = minutesSince(lastSuccess);
             if (minutesAgo == 0) {
                 return "Online - Just updated";
             } else {
@@ -122,29 +204,30 @@ public class ErrorRecoveryManager {
             return "Starting up...";
         }
     }
-    
+
     /**
-     * Switch to fallback mode.
+     * Reset the error recovery state.
      */
-    private void switchToFallbackMode() {
-        inFallbackMode = true;
-        fallbackModeStartTime = LocalDateTime.now();
+    public void reset() {
+        consecutiveFailures.set(0);
+        lastSuccessNanos = NEVER;
+        circuit.set(new Circuit(State.CLOSED, System.nanoTime()));
     }
-    
-    /**
-     * Exit fallback mode.
-     */
-    private void exitFallbackMode() {
-        inFallbackMode = false;
-        fallbackModeStartTime = null;
+
+    private static long minutesSince(long nanos) {
+        return TimeUnit.NANOSECONDS.toMinutes(System.nanoTime() - nanos);
     }
-    
+
     /**
-     * Reset the error recovery state.
+     * Immutable state with the time it was entered, swapped atomically.
      */
-    public void reset() {
-        consecutiveFailures = 0;
-        lastSuccessTime = null;
-        exitFallbackMode();
+    private static final class Circuit {
+        private final State state;
+        private final long since;
+
+        private Circuit(State state, long since) {
+            this.state = state;
+            this.since = since;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.defimore.crypto.service;
+
+import com.intellij.openapi.extensions.ExtensionPointName;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Additional exchange that prices can be read from, next to the built-in Binance source.
+ * Providers are registered in plugin.xml as {@code <exchangeProvider implementation="..."/>} and
+ * selected by id in the configured price sources. When several sources are configured they are
+ * fetched in parallel and the median price of each symbol is shown.
+ */
+public interface ExchangeProvider {
+
+    ExtensionPointName<ExchangeProvider> EP_NAME =
+            ExtensionPointName.create("com.defimore.crypto-price-plugin.exchangeProvider");
+
+    Duration DEFAULT_TIMEOUT = Duration.ofMillis(2500);
+
+    /**
+     * Receives fetched prices.
+     */
+    interface PriceSink {
+
+        /**
+         * Called once per fetched price, possibly from several threads.
+         * @param symbolIndex Position of the symbol in the requested list
+         * @param unscaled Unscaled fixed-point price
+         * @param scale Scale of the price
+         */
+        void accept(int symbolIndex, long unscaled, int scale);
+    }
+
+    /**
+     * Get the id used in the configured price sources, e.g. "okx".
+     */
+    String getId();
+
+    /**
+     * Get the name shown to users.
+     */
+    String getDisplayName();
+
+    /**
+     * Get the time after which this source is left out of a price update.
+     */
+    default Duration getTimeout() {
+        return DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Fetch the last traded prices without blocking.
+     * @param client Shared HTTP client
+     * @param symbols Base symbols, e.g. BTC
+     * @param quoteSymbol Quote currency, e.g. USDT
+     * @param sink Receiver for the prices; symbols the exchange does not list are skipped
+     * @return Future that completes once all prices were passed to the sink
+     */
+    CompletableFuture<Void> fetchPrices(HttpClient client, List<String> symbols, String quoteSymbol, PriceSink sink);
+}
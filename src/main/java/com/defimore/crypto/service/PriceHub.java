@@ -0,0 +1,201 @@
+package com.defimore.crypto.service;
+
+import com.defimore.crypto.model.CryptoPluginConfig;
+import com.defimore.crypto.service.impl.BinancePriceService;
+import com.defimore.crypto.util.StartupMetrics;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Application-level hub that shares one price service and one fetch loop between all project widgets.
+ * Consumers attach through reference-counted subscriptions: the loop starts with the first
+ * subscription and stops when the last one is disposed.
+ * <p>
+ * The services are created by {@link #start()} from a background post-startup activity, so project
+ * open only pays for the widget shells. Widgets wait for the hub through {@link #whenReady(Consumer)}.
+ */
+@Service
+public final class PriceHub implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(PriceHub.class);
+
+    private final Object lock = new Object();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final List<Consumer<PriceService>> pendingCallbacks = new ArrayList<>();
+    private volatile PriceService priceService;
+    private boolean ready;
+    private int subscriberCount;
+
+    /**
+     * Get the application-wide price hub.
+     */
+    public static PriceHub getInstance() {
+        return ApplicationManager.getApplication().getService(PriceHub.class);
+    }
+
+    /**
+     * Get the shared price service with lazy initialization.
+     * @return PriceService instance
+     */
+    public PriceService getPriceService() {
+        if (priceService == null) {
+            synchronized (lock) {
+                if (priceService == null) {
+                    priceService = new BinancePriceService();
+                }
+            }
+        }
+        return priceService;
+    }
+
+    /**
+     * Create the price service, HTTP client and configuration, hand the service to waiting widgets
+     * and send the first fetch. Only the first call per application does any work.
+     * Must not be called on the EDT.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        PriceService service = getPriceService();
+        List<Consumer<PriceService>> callbacks;
+        synchronized (lock) {
+            ready = true;
+            callbacks = new ArrayList<>(pendingCallbacks);
+            pendingCallbacks.clear();
+        }
+        for (Consumer<PriceService> callback : callbacks) {
+            runCallback(callback, service);
+        }
+        StartupMetrics.recordServiceStartup(System.nanoTime() - startTime);
+
+        CryptoPluginConfig config = ConfigurationServiceFactory.getInstance().getConfig();
+        if (!config.getSymbols().isEmpty()) {
+            service.fetchPrices(config.getSymbols()); // Result reaches widgets through their listeners
+        }
+        LOG.info("Crypto price plugin startup cost. " + StartupMetrics.getSummary());
+    }
+
+    /**
+     * Run a callback with the price service once the hub has started. Callbacks registered before
+     * {@link #start()} run on the starting thread; later ones run on a pooled thread.
+     * @param callback Callback receiving the shared price service
+     */
+    public void whenReady(Consumer<PriceService> callback) {
+        synchronized (lock) {
+            if (!ready) {
+                pendingCallbacks.add(callback);
+                return;
+            }
+        }
+        ApplicationManager.getApplication().executeOnPooledThread(() -> runCallback(callback, priceService));
+    }
+
+    /**
+     * Check if the services have been started.
+     */
+    public boolean isReady() {
+        synchronized (lock) {
+            return ready;
+        }
+    }
+
+    private static void runCallback(Consumer<PriceService> callback, PriceService service) {
+        try {
+            callback.accept(service);
+        } catch (Exception e) {
+            System.err.println("Error attaching to price hub: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Attach a consumer to the shared price feed, starting the fetch loop if it is the first one.
+     * @param listener Listener to be notified of price updates
+     * @return Subscription that detaches the listener when disposed
+     */
+    public Disposable subscribe(PriceUpdateListener listener) {
+        PriceService service = getPriceService();
+        service.addPriceUpdateListener(listener);
+
+        synchronized (lock) {
+            subscriberCount++;
+            service.startPeriodicUpdates(); // No-op while the loop is already running
+        }
+        return new Subscription(listener);
+    }
+
+    /**
+     * Get the number of active subscriptions.
+     * @return Subscriber count
+     */
+    public int getSubscriberCount() {
+        synchronized (lock) {
+            return subscriberCount;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (lock) {
+            pendingCallbacks.clear();
+        }
+        PriceService service = priceService;
+        if (service instanceof BinancePriceService) {
+            ((BinancePriceService) service).dispose();
+        } else if (service != null) {
+            service.stopPeriodicUpdates();
+        }
+    }
+
+    /**
+     * Detach a consumer and stop the loop once nobody is left.
+     */
+    private void unsubscribe(PriceUpdateListener listener) {
+        PriceService service = getPriceService();
+        service.removePriceUpdateListener(listener);
+
+        boolean last;
+        synchronized (lock) {
+            subscriberCount--;
+            last = subscriberCount == 0;
+        }
+
+        if (last) {
+            // Stopping only cancels the pending poll, so it is cheap on the caller's (usually EDT) thread
+            synchronized (lock) {
+                if (subscriberCount == 0) {
+                    service.stopPeriodicUpdates();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reference to one attached consumer. Disposing it more than once has no effect.
+     */
+    private final class Subscription implements Disposable {
+
+        private final PriceUpdateListener listener;
+        private final AtomicBoolean disposed = new AtomicBoolean();
+
+        private Subscription(PriceUpdateListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void dispose() {
+            if (disposed.compareAndSet(false, true)) {
+                unsubscribe(listener);
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.defimore.crypto.service;
 
+import com.defimore.crypto.model.CandleAggregator;
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.TickHistory;
+
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -19,10 +23,30 @@ public interface PriceService {
     
     /**
      * Get cached prices from the last successful fetch.
-     * @return Map of symbol to cached price
+     * @return Read-only map view of symbol to cached price
      */
     Map<String, BigDecimal> getCachedPrices();
     
+    /**
+     * Get the cached prices as a fixed-point table. The table is immutable, so it can be
+     * read without copying or locking.
+     * @return Current price table
+     */
+    PriceTable getPriceTable();
+    
+    /**
+     * Get the bounded tick history of all fetched and streamed prices. Symbol ids are those of
+     * {@link #getPriceTable()}'s dictionary.
+     * @return Tick history
+     */
+    TickHistory getTickHistory();
+    
+    /**
+     * Get the OHLC candles built from all fetched and streamed prices.
+     * @return Candle aggregator
+     */
+    CandleAggregator getCandles();
+    
     /**
      * Start periodic price updates based on configuration.
      */
@@ -0,0 +1,160 @@
+package com.defimore.crypto.service.impl;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits trading pairs into ticker/price requests.
+ * Pairs are divided into evenly sized batches that stay below the URL length limit. When the
+ * batches together cost more request weight than one all-symbols request, the plan switches to
+ * the all-symbols endpoint and filters the response instead.
+ */
+public class BatchPlanner {
+
+    // Request weights of /api/v3/ticker/price
+    public static final int SINGLE_SYMBOL_WEIGHT = 2;
+    public static final int SYMBOLS_WEIGHT = 4;
+    public static final int ALL_SYMBOLS_WEIGHT = 4;
+
+    private static final int MAX_SYMBOLS_PER_BATCH = 100;
+    private static final int MAX_QUERY_LENGTH = 4000; // Encoded characters, well below common URL limits
+
+    /**
+     * A single request of a plan.
+     */
+    public static final class Batch {
+
+        private final List<String> tradingPairs;
+        private final int weight;
+
+        private Batch(List<String> tradingPairs, int weight) {
+            this.tradingPairs = tradingPairs;
+            this.weight = weight;
+        }
+
+        /**
+         * Get the trading pairs of this batch.
+         * @return Trading pairs, empty for an all-symbols request
+         */
+        public List<String> getTradingPairs() {
+            return tradingPairs;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public boolean isAllSymbols() {
+            return tradingPairs.isEmpty();
+        }
+
+        /**
+         * Build the query string for this batch, including the leading '?' if not empty.
+         * Format: ?symbol=BTCUSDT or ?symbols=["BTCUSDT","ETHUSDT"]
+         */
+        public String toQueryString() {
+            if (tradingPairs.isEmpty()) {
+                return "";
+            }
+            if (tradingPairs.size() == 1) {
+                return "?symbol=" + URLEncoder.encode(tradingPairs.get(0), StandardCharsets.UTF_8);
+            }
+            return "?symbols=" + URLEncoder.encode(buildSymbolsParameter(tradingPairs), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Plan the requests for the given trading pairs.
+     * @param tradingPairs Trading pairs to fetch
+     * @return Batches to send in parallel
+     */
+    public List<Batch> plan(List<String> tradingPairs) {
+        if (tradingPairs.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int batchCount = countBatches(tradingPairs);
+        int batchSize = (tradingPairs.size() + batchCount - 1) / batchCount;
+
+        List<Batch> batches = new ArrayList<>(batchCount);
+        int totalWeight = 0;
+        for (int start = 0; start < tradingPairs.size(); start += batchSize) {
+            List<String> pairs = new ArrayList<>(tradingPairs.subList(start, Math.min(start + batchSize, tradingPairs.size())));
+            int weight = pairs.size() == 1 ? SINGLE_SYMBOL_WEIGHT : SYMBOLS_WEIGHT;
+            batches.add(new Batch(pairs, weight));
+            totalWeight += weight;
+        }
+
+        if (totalWeight > ALL_SYMBOLS_WEIGHT) {
+            return Collections.singletonList(allSymbolsBatch());
+        }
+        return batches;
+    }
+
+    /**
+     * Get a batch for the unparameterised all-symbols request.
+     */
+    public static Batch allSymbolsBatch() {
+        return new Batch(Collections.emptyList(), ALL_SYMBOLS_WEIGHT);
+    }
+
+    /**
+     * Get the total weight of a plan.
+     */
+    public static int totalWeight(List<Batch> batches) {
+        int weight = 0;
+        for (Batch batch : batches) {
+            weight += batch.getWeight();
+        }
+        return weight;
+    }
+
+    /**
+     * Find the smallest number of evenly sized batches whose query strings all fit the limits.
+     */
+    private int countBatches(List<String> tradingPairs) {
+        int batchCount = (tradingPairs.size() + MAX_SYMBOLS_PER_BATCH - 1) / MAX_SYMBOLS_PER_BATCH;
+        while (batchCount < tradingPairs.size()) {
+            int batchSize = (tradingPairs.size() + batchCount - 1) / batchCount;
+            boolean fits = true;
+            for (int start = 0; start < tradingPairs.size() && fits; start += batchSize) {
+                fits = encodedLength(tradingPairs.subList(start, Math.min(start + batchSize, tradingPairs.size())))
+                        <= MAX_QUERY_LENGTH;
+            }
+            if (fits) {
+                break;
+            }
+            batchCount++;
+        }
+        return batchCount;
+    }
+
+    /**
+     * Encoded length of a symbols parameter: each pair adds its quotes (%22) and a comma (%2C).
+     */
+    private static int encodedLength(List<String> pairs) {
+        int length = 6; // %5B and %5D
+        for (String pair : pairs) {
+            length += pair.length() + 9;
+        }
+        return length;
+    }
+
+    /**
+     * Build the symbols parameter for the Binance API.
+     * Format: ["BTCUSDT","ETHUSDT","ASTERUSDT"]
+     */
+    private static String buildSymbolsParameter(List<String> symbols) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < symbols.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(symbols.get(i)).append('"');
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -1,32 +1,48 @@
 package com.defimore.crypto.service.impl;
 
-import com.defimore.crypto.model.BinancePriceItem;
 import com.defimore.crypto.model.CryptoPluginConfig;
+import com.defimore.crypto.model.CandleAggregator;
+import com.defimore.crypto.model.ConfigDiff;
+import com.defimore.crypto.model.MarketSnapshotStore;
+import com.defimore.crypto.model.PriceCache;
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import com.defimore.crypto.model.TickHistory;
 import com.defimore.crypto.service.ConfigChangeListener;
 import com.defimore.crypto.service.ConfigurationService;
 import com.defimore.crypto.service.ConfigurationServiceFactory;
 import com.defimore.crypto.service.ErrorRecoveryManager;
+import com.defimore.crypto.service.ExchangeProvider;
 import com.defimore.crypto.service.PriceService;
 import com.defimore.crypto.service.PriceUpdateListener;
+import com.defimore.crypto.util.CompressedBody;
 import com.defimore.crypto.util.HttpClientConfig;
-
 import com.defimore.crypto.util.ThreadManager;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.defimore.crypto.util.TransferStats;
+import com.intellij.openapi.application.PathManager;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.net.URI;
-import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -34,33 +50,68 @@ import java.util.stream.Collectors;
  */
 public class BinancePriceService implements PriceService, ConfigChangeListener {
     
-    private static final String API_URL = "https://data-api.binance.vision/api/v3/ticker/price";
+    private static final String TICKER_PATH = "/api/v3/ticker/price";
     
     private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
-    private final Map<String, BigDecimal> priceCache;
+    private final BinanceTickerDecoder tickerDecoder;
+    private final SymbolDictionary cacheSymbols;
+    private final PriceCache priceCache;
+    private final TickHistory tickHistory;
+    private final CandleAggregator candles;
+    private final Object journalLock = new Object();
+    private volatile TickJournal tickJournal;
+    private boolean journalUnavailable;
     private final List<PriceUpdateListener> listeners;
     private final ConfigurationService configService;
     private final ErrorRecoveryManager errorRecoveryManager;
+    private final RequestCoalescer requestCoalescer;
+    private final BatchPlanner batchPlanner;
+    private final PriceSourceFetcher sourceFetcher;
+    private final RateLimiter rateLimiter;
+    private final EndpointPool endpointPool;
+    private final TransferStats transferStats;
+    private final MarketSnapshotStore marketSnapshot;
+    private final PriceSnapshotFile snapshotFile;
     
-    private static final int MAX_CACHE_SIZE = 100; // Limit cache size
-    private ThreadManager threadManager;
+    private static final long SNAPSHOT_SAVE_INTERVAL_MS = 30000; // Persist last prices at most every 30 seconds
+    private static final long STREAM_FLUSH_MS = 250; // Stream ticks are applied at most four times a second
+    private final ThreadManager threadManager;
+    private final Object pollLock = new Object();
+    private long pollGeneration; // Guarded by pollLock; bumped on every start and stop
+    private ScheduledFuture<?> pendingPoll; // Guarded by pollLock
+    private volatile BinanceStreamClient streamClient;
     private volatile boolean isOnline;
     private volatile boolean isPeriodicUpdatesEnabled;
     private volatile LocalDateTime lastSuccessfulUpdate;
+    private volatile long lastSnapshotSave;
     
     public BinancePriceService() {
         this.httpClient = HttpClientConfig.createClient();
-        this.objectMapper = new ObjectMapper();
-        this.priceCache = new HashMap<>();
+        this.tickerDecoder = new BinanceTickerDecoder();
+        this.cacheSymbols = new SymbolDictionary();
+        this.priceCache = new PriceCache(cacheSymbols);
         this.listeners = new CopyOnWriteArrayList<>();
         this.configService = ConfigurationServiceFactory.getInstance();
+        this.tickHistory = new TickHistory(cacheSymbols, configService.getConfig().getHistoryCapacity());
+        this.candles = new CandleAggregator(cacheSymbols);
         this.errorRecoveryManager = new ErrorRecoveryManager();
+        this.requestCoalescer = new RequestCoalescer(this::fetchFromExchange);
+        this.batchPlanner = new BatchPlanner();
+        this.sourceFetcher = new PriceSourceFetcher(httpClient, cacheSymbols, this::fetchFromBinance,
+                BinancePriceService::findProviders);
+        this.rateLimiter = new RateLimiter();
+        this.endpointPool = new EndpointPool();
+        this.transferStats = new TransferStats();
+        this.marketSnapshot = new MarketSnapshotStore();
+        this.snapshotFile = new PriceSnapshotFile(storagePath("last-prices.bin"));
         this.threadManager = new ThreadManager();
         this.isOnline = false;
         this.isPeriodicUpdatesEnabled = false;
         this.lastSuccessfulUpdate = null;
         
+        // Show the last known prices until the first fetch completes
+        restoreSnapshot();
+        
         // Listen for configuration changes
         configService.addConfigChangeListener(this);
     }
@@ -71,90 +122,312 @@ public class BinancePriceService implements PriceService, ConfigChangeListener {
             return CompletableFuture.completedFuture(new HashMap<>());
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Build the symbols parameter for the API using configured stable symbol
-                CryptoPluginConfig config = configService.getConfig();
-                String stableSymbol = config.getStableSymbol();
-                List<String> tradingPairs = symbols.stream()
-                        .map(symbol -> symbol + stableSymbol)
-                        .collect(Collectors.toList());
-                
-                String symbolsParam = buildSymbolsParameter(tradingPairs);
-                String url = API_URL + "?symbols=" + URLEncoder.encode(symbolsParam, StandardCharsets.UTF_8);
-                
-                // Create HTTP request
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .timeout(HttpClientConfig.getRequestTimeout())
-                        .GET()
-                        .build();
-                
-                // Send request
-                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-                
-                if (response.statusCode() == 200) {
-                    // Parse response
-                    List<BinancePriceItem> priceItems = objectMapper.readValue(
-                            response.body(), 
-                            new TypeReference<List<BinancePriceItem>>() {}
-                    );
-                    
-                    // Convert to map and update cache
-                    Map<String, BigDecimal> prices = new HashMap<>();
-                    for (BinancePriceItem item : priceItems) {
-                        String symbol = item.getSymbol().replace(stableSymbol, "");
-                        BigDecimal price = new BigDecimal(item.getPrice());
-                        prices.put(symbol, price);
-                    }
-                    
-                    // Update cache and status with size limit
-                    synchronized (priceCache) {
-                        priceCache.putAll(prices);
-                        
-                        // Limit cache size to prevent memory issues
-                        if (priceCache.size() > MAX_CACHE_SIZE) {
-                            // Remove oldest entries (simple approach)
-                            int toRemove = priceCache.size() - MAX_CACHE_SIZE;
-                            priceCache.entrySet().removeIf(entry -> toRemove > 0);
-                        }
-                    }
-                    
-                    // Update status and error recovery
-                    isOnline = true;
-                    lastSuccessfulUpdate = LocalDateTime.now();
-                    errorRecoveryManager.onSuccess();
-                    
-                    // Notify listeners
-                    notifyPriceUpdate(prices, true);
-                    
-                    return prices;
-                } else {
-                    throw new RuntimeException("HTTP " + response.statusCode() + ": " + response.body());
-                }
-                
-            } catch (Exception e) {
-                // Handle error with recovery manager
-                errorRecoveryManager.handleError(e);
-                isOnline = !errorRecoveryManager.isInFallbackMode();
-                
-                // Notify listeners with cached data if available
+        // Concurrent callers for the same symbols share one exchange call
+        return requestCoalescer.fetch(symbols);
+    }
+    
+    /**
+     * Fetch prices from the exchange. Called by the request coalescer for symbols not already in flight.
+     */
+    private CompletableFuture<Map<String, BigDecimal>> fetchFromExchange(List<String> symbols) {
+        // Build the trading pairs for the API using configured stable symbol
+        CryptoPluginConfig config = configService.getConfig();
+        List<String> tradingPairs = toTradingPairs(symbols, config.getStableSymbol());
+        int[] ids = new int[symbols.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = cacheSymbols.intern(symbols.get(i));
+        }
+        
+        CompletableFuture<PriceTable> exchangeCall;
+        switch (errorRecoveryManager.acquirePermission()) {
+            case REJECTED:
+                // Circuit is open: answer from the cache without touching the network
+                isOnline = false;
                 Map<String, BigDecimal> cachedPrices = getCachedPrices();
                 if (!cachedPrices.isEmpty()) {
                     notifyPriceUpdate(cachedPrices, false);
                 }
-                
-                notifyPriceUpdateFailed(e);
-                throw new RuntimeException("Failed to fetch prices: " + e.getMessage(), e);
+                return CompletableFuture.completedFuture(priceCache.getTable().asMap(symbols));
+            case PROBE:
+                // One single-symbol request through the configured sources decides whether full traffic resumes
+                exchangeCall = sourceFetcher.probe(errorRecoveryManager, config, symbols, ids, tradingPairs);
+                break;
+            default:
+                exchangeCall = sourceFetcher.fetch(config, symbols, ids, tradingPairs);
+        }
+        
+        return exchangeCall.handle((fetched, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                throw handleFetchFailure(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+            }
+            
+            // Update cache and status
+            PriceTable table = updateCache(fetched);
+            
+            // Notify listeners with a zero-copy view of the cache
+            notifyPriceUpdate(table.asMap(), true);
+            
+            return table.asMap(symbols);
+        });
+    }
+    
+    private CompletableFuture<PriceTable> fetchFromBinance(CryptoPluginConfig config, int[] ids, List<String> tradingPairs) {
+        return config.isFullMarketSnapshot()
+                ? fetchMarketSnapshot(ids, tradingPairs)
+                : fetchBatches(ids, tradingPairs);
+    }
+    
+    /**
+     * Find the registered exchange providers for the configured source ids, in configuration order.
+     * Unknown ids are ignored.
+     */
+    private static List<ExchangeProvider> findProviders(List<String> sourceIds) {
+        List<ExchangeProvider> providers = new ArrayList<>();
+        if (sourceIds.size() == 1 && sourceIds.contains(CryptoPluginConfig.BINANCE_SOURCE)) {
+            return providers; // The default needs no extension lookup
+        }
+        List<ExchangeProvider> registered = ExchangeProvider.EP_NAME.getExtensionList();
+        for (String id : sourceIds) {
+            for (ExchangeProvider provider : registered) {
+                if (provider.getId().equalsIgnoreCase(id)) {
+                    providers.add(provider);
+                    break;
+                }
+            }
+        }
+        return providers;
+    }
+    
+    /**
+     * Fetch the requested pairs in planned batches, sent in parallel.
+     * @param ids Cache symbol ids, in the same order as the trading pairs
+     * @return Table with the fetched prices only
+     */
+    private CompletableFuture<PriceTable> fetchBatches(int[] ids, List<String> tradingPairs) {
+        List<BatchPlanner.Batch> batches = batchPlanner.plan(tradingPairs);
+        
+        // Pairs are matched by index and written as fixed-point values, so nothing is built per item
+        BinanceTickerDecoder.PairIndex pairIndex = new BinanceTickerDecoder.PairIndex(tradingPairs);
+        PriceTable.Builder fetched = PriceTable.empty(cacheSymbols).toBuilder(System.currentTimeMillis());
+        BinanceTickerDecoder.PriceSink sink = (index, unscaled, scale) -> {
+            synchronized (fetched) {
+                fetched.put(ids[index], unscaled, scale);
+            }
+        };
+        
+        // Wait for the rate limiter, which queues callers instead of rejecting them
+        return rateLimiter.acquire(BatchPlanner.totalWeight(batches)).thenCompose(permit -> {
+            CompletableFuture<?>[] calls = new CompletableFuture<?>[batches.size()];
+            for (int i = 0; i < batches.size(); i++) {
+                calls[i] = sendBatch(batches.get(i)).thenAcceptAsync(
+                        response -> decodeResponse(response, pairIndex, sink), HttpClientConfig.getExecutor());
+            }
+            return CompletableFuture.allOf(calls);
+        }).thenApply(ignored -> {
+            synchronized (fetched) {
+                return fetched.build();
+            }
+        });
+    }
+    
+    /**
+     * Fetch every market in one all-symbols request into the columnar snapshot store,
+     * then read the requested pairs from it.
+     * @param ids Cache symbol ids, in the same order as the trading pairs
+     * @return Table with the requested prices only
+     */
+    private CompletableFuture<PriceTable> fetchMarketSnapshot(int[] ids, List<String> tradingPairs) {
+        BatchPlanner.Batch batch = BatchPlanner.allSymbolsBatch();
+        
+        return rateLimiter.acquire(batch.getWeight()).thenCompose(permit -> sendBatch(batch)).thenApplyAsync(response -> {
+            MarketSnapshotStore.Writer writer = marketSnapshot.newWriter(System.currentTimeMillis());
+            decodeResponse(response, marketSnapshot.getDictionary()::intern, writer::put);
+            PriceTable market = writer.publish();
+            
+            PriceTable.Builder requested = PriceTable.empty(cacheSymbols).toBuilder(market.getLastUpdate());
+            for (int i = 0; i < tradingPairs.size(); i++) {
+                int pairId = market.getDictionary().indexOf(tradingPairs.get(i));
+                if (market.has(pairId)) {
+                    requested.put(ids[i], market.getUnscaled(pairId), market.getScale(pairId));
+                }
+            }
+            return requested.build();
+        }, HttpClientConfig.getExecutor());
+    }
+    
+    /**
+     * Send one batch request to the fastest healthy host. If it has not answered within its p95
+     * latency, the same request is sent to the next best host and the first usable response wins.
+     * Errors and other statuses only settle the call when no other request can still answer.
+     */
+    private CompletableFuture<HttpResponse<CompressedBody>> sendBatch(BatchPlanner.Batch batch) {
+        EndpointPool.Endpoint primary = endpointPool.select();
+        CompletableFuture<HttpResponse<CompressedBody>> primaryCall = sendBatch(batch, primary);
+        EndpointPool.Endpoint backup = endpointPool.selectHedge(primary);
+        long hedgeDelay = primary.getLatencyPercentile(0.95);
+        if (backup == null || hedgeDelay < 0) {
+            return primaryCall;
+        }
+        
+        CompletableFuture<HttpResponse<CompressedBody>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1); // Requests that can still answer
+        AtomicReference<CompletableFuture<HttpResponse<CompressedBody>>> hedgeCall = new AtomicReference<>();
+        primaryCall.whenComplete((response, throwable) -> settle(result, pending, response, throwable, hedgeCall.get()));
+        
+        CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS, HttpClientConfig.getExecutor()).execute(() -> {
+            // Hedges are optional, so they only use weight that is available right away
+            if (result.isDone() || primaryCall.isDone() || !rateLimiter.tryAcquire(batch.getWeight())) {
+                return;
+            }
+            if (pending.getAndUpdate(count -> count == 0 ? 0 : count + 1) == 0) {
+                return; // The primary settled the call in the meantime
+            }
+            CompletableFuture<HttpResponse<CompressedBody>> hedge = sendBatch(batch, backup);
+            hedgeCall.set(hedge);
+            hedge.whenComplete((response, throwable) -> settle(result, pending, response, throwable, primaryCall));
+        });
+        return result;
+    }
+    
+    /**
+     * Settle a hedged call with one finished request. A 200 or rate limit response wins right away
+     * and cancels the other request; anything else only settles the call if it was the last request,
+     * so a host that fails fast, e.g. with HTTP 403 or 451, cannot beat a slower working one.
+     */
+    private static void settle(CompletableFuture<HttpResponse<CompressedBody>> result, AtomicInteger pending,
+                               HttpResponse<CompressedBody> response, Throwable throwable, CompletableFuture<?> other) {
+        boolean last = pending.decrementAndGet() == 0;
+        if (throwable == null && (isUsable(response) || last)) {
+            if (result.complete(response)) {
+                cancel(other);
+            } else {
+                response.body().close(); // The other request answered first
+            }
+        } else if (throwable != null && last) {
+            result.completeExceptionally(throwable);
+        } else if (response != null) {
+            response.body().close(); // The other request may still answer
+        }
+    }
+    
+    /**
+     * Check if a response can settle a hedged call: prices, or a rate limit that must reach the limiter.
+     */
+    private static boolean isUsable(HttpResponse<?> response) {
+        return response.statusCode() == 200 || RateLimiter.isRateLimited(response.statusCode());
+    }
+    
+    /**
+     * Send one batch request to a host without blocking and record its latency. The body is
+     * collected by the HTTP client as it arrives, so no thread waits on the network, and is
+     * compressed when the host supports it.
+     */
+    private CompletableFuture<HttpResponse<CompressedBody>> sendBatch(BatchPlanner.Batch batch, EndpointPool.Endpoint endpoint) {
+        // Create HTTP request, with a timeout that follows the latency of this host
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(endpoint.getBaseUrl() + TICKER_PATH + batch.toQueryString()))
+                .timeout(HttpClientConfig.getRequestTimeout(endpoint.getLatencyPercentile(0.99)))
+                .header(CompressedBody.ACCEPT_ENCODING_HEADER, CompressedBody.ACCEPT_ENCODING)
+                .GET()
+                .build();
+        
+        endpoint.markUsed();
+        long startTime = System.nanoTime();
+        CompletableFuture<HttpResponse<CompressedBody>> call = httpClient.sendAsync(request, CompressedBody.handler(transferStats));
+        call.whenComplete((response, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                return; // Lost a hedge race; says nothing about the host
             }
+            if (throwable == null && RateLimiter.isRateLimited(response.statusCode())) {
+                return; // Limits are per IP address, not per host
+            }
+            // Any other status counts as an error, e.g. a host that blocks the region with 403 or 451
+            endpoint.record(System.nanoTime() - startTime, throwable == null && response.statusCode() == 200);
         });
+        return call;
+    }
+    
+    private static void cancel(CompletableFuture<?> call) {
+        if (call != null) {
+            call.cancel(true); // Aborts the exchange on runtimes that support it
+        }
+    }
+    
+    /**
+     * Get the received and decoded sizes of the Binance REST responses.
+     */
+    public TransferStats getTransferStats() {
+        return transferStats;
+    }
+    
+    /**
+     * Get the pool of REST hosts with their latency statistics.
+     */
+    public EndpointPool getEndpointPool() {
+        return endpointPool;
+    }
+    
+    /**
+     * Check the status of a batch response and decode its body. The body is decompressed while
+     * the decoder reads it, and closed afterwards.
+     */
+    private void decodeResponse(HttpResponse<CompressedBody> response, BinanceTickerDecoder.SymbolResolver resolver,
+                                BinanceTickerDecoder.PriceSink sink) {
+        try (CompressedBody body = response.body()) {
+            rateLimiter.onResponse(response.statusCode(), response.headers()); // Throws on 429 and 418
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("HTTP " + response.statusCode() + ": " + body.readString());
+            }
+            tickerDecoder.decode(body.open(), resolver, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Record a failed fetch, fall back to cached data and notify listeners.
+     * @return Exception to complete the caller's future with
+     */
+    private RuntimeException handleFetchFailure(Exception e) {
+        if (e instanceof RateLimitException) {
+            // The rate limiter already holds requests back; this is not a connection problem
+            isOnline = false;
+        } else {
+            // Handle error with recovery manager
+            errorRecoveryManager.handleError(e);
+            isOnline = !errorRecoveryManager.isInFallbackMode();
+        }
+        
+        // Notify listeners with cached data if available
+        Map<String, BigDecimal> cachedPrices = getCachedPrices();
+        if (!cachedPrices.isEmpty()) {
+            notifyPriceUpdate(cachedPrices, false);
+        }
+        
+        notifyPriceUpdateFailed(e);
+        return new RuntimeException("Failed to fetch prices: " + e.getMessage(), e);
     }
     
     @Override
     public Map<String, BigDecimal> getCachedPrices() {
-        synchronized (priceCache) {
-            return new HashMap<>(priceCache);
-        }
+        return priceCache.asMap();
+    }
+    
+    @Override
+    public PriceTable getPriceTable() {
+        return priceCache.getTable();
+    }
+    
+    @Override
+    public TickHistory getTickHistory() {
+        return tickHistory;
+    }
+    
+    @Override
+    public CandleAggregator getCandles() {
+        return candles;
     }
     
     @Override
@@ -164,15 +437,24 @@ public class BinancePriceService implements PriceService, ConfigChangeListener {
         }
         
         isPeriodicUpdatesEnabled = true;
-        schedulePeriodicUpdate();
+        if (configService.getConfig().isStreamingEnabled()) {
+            startStreaming();
+        } else {
+            schedulePeriodicUpdate();
+        }
     }
     
+    /**
+     * Stop updates without waiting: the pending poll is cancelled and callbacks of fetches still in
+     * flight belong to an old generation, so they cannot schedule another poll.
+     */
     @Override
     public void stopPeriodicUpdates() {
         isPeriodicUpdatesEnabled = false;
-        if (threadManager != null) {
-            threadManager.shutdown();
-            threadManager = new ThreadManager(); // Create new instance for future use
+        stopStreaming();
+        synchronized (pollLock) {
+            pollGeneration++;
+            cancelPendingPoll();
         }
     }
     
@@ -194,13 +476,94 @@ public class BinancePriceService implements PriceService, ConfigChangeListener {
     }
     
     /**
-     * Build the symbols parameter for the Binance API.
-     * Format: ["BTCUSDT","ETHUSDT","ASTERUSDT"]
+     * Map base symbols to trading pairs against the stable symbol, e.g. BTC -> BTCUSDT.
+     */
+    private List<String> toTradingPairs(List<String> symbols, String stableSymbol) {
+        return symbols.stream()
+                .map(symbol -> symbol + stableSymbol)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Merge fresh prices into the cache, record them as ticks and mark the service as online.
+     * @param fetched Table with the fetched prices, using the cache dictionary
+     * @return The new cache table
      */
-    private String buildSymbolsParameter(List<String> symbols) {
-        return "[" + symbols.stream()
-                .map(symbol -> "\"" + symbol + "\"")
-                .collect(Collectors.joining(",")) + "]";
+    private PriceTable updateCache(PriceTable fetched) {
+        PriceTable updated = priceCache.update(fetched).getTable();
+        
+        // Record ticks on the fetching thread, before listeners hand the update to the EDT
+        tickHistory.recordAll(fetched);
+        candles.onTable(fetched);
+        journalTicks(fetched);
+        saveSnapshotIfDue(updated);
+        
+        // Update status and error recovery
+        isOnline = true;
+        lastSuccessfulUpdate = LocalDateTime.now();
+        errorRecoveryManager.onSuccess();
+        return updated;
+    }
+    
+    /**
+     * Append fetched prices to the persistent tick journal, opening it on first use.
+     * Journal errors are logged and never fail the price update.
+     */
+    private void journalTicks(PriceTable fetched) {
+        TickJournal journal = getTickJournal();
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.appendAll(fetched);
+        } catch (IOException e) {
+            System.err.println("Error writing tick journal: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Load the prices saved by the previous session into the cache. They keep their original
+     * fetch times and the service stays offline, so they are shown as cached.
+     */
+    private void restoreSnapshot() {
+        try {
+            PriceTable restored = snapshotFile.load(cacheSymbols);
+            if (restored.size() > 0) {
+                priceCache.update(restored);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading last known prices: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Persist the cache for the next startup, at most once per save interval.
+     */
+    private void saveSnapshotIfDue(PriceTable table) {
+        long now = System.currentTimeMillis();
+        if (now - lastSnapshotSave < SNAPSHOT_SAVE_INTERVAL_MS) {
+            return;
+        }
+        lastSnapshotSave = now;
+        saveSnapshot(table);
+    }
+    
+    private void saveSnapshot(PriceTable table) {
+        if (table.size() == 0) {
+            return;
+        }
+        try {
+            snapshotFile.save(table);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error saving last known prices: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Resolve a file in the plugin's directory under the IDE system path.
+     */
+    private static Path storagePath(String name) {
+        return Paths.get(PathManager.getSystemPath(), "crypto-price", name);
     }
     
     /**
@@ -237,13 +600,139 @@ public class BinancePriceService implements PriceService, ConfigChangeListener {
     }
     
     /**
-     * Schedule periodic price updates based on current configuration.
+     * Get the persistent tick journal under the IDE system directory, opening it on first use.
+     * @return Journal, or null if it cannot be opened
+     */
+    public TickJournal getTickJournal() {
+        TickJournal journal = tickJournal;
+        if (journal != null) {
+            return journal;
+        }
+        synchronized (journalLock) {
+            if (tickJournal == null && !journalUnavailable) {
+                try {
+                    tickJournal = new TickJournal(storagePath("journal"));
+                } catch (IOException | RuntimeException e) {
+                    journalUnavailable = true;
+                    System.err.println("Tick journal unavailable: " + e.getMessage());
+                }
+            }
+            return tickJournal;
+        }
+    }
+    
+    /**
+     * Get the columnar store filled by full-market snapshots.
+     */
+    public MarketSnapshotStore getMarketSnapshot() {
+        return marketSnapshot;
+    }
+    
+    /**
+     * Look up any symbol in the latest full-market snapshot without sending a request.
+     * @param symbol Base symbol, e.g. BTC
+     * @return Price against the configured stable symbol, or null if not in the snapshot
+     */
+    public BigDecimal getMarketPrice(String symbol) {
+        return marketSnapshot.getPrice(symbol + configService.getConfig().getStableSymbol());
+    }
+    
+    /**
+     * Get the rate limiter tracking the Binance request weight.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * Get the price cache, e.g. for hit, miss and eviction counters.
+     */
+    public PriceCache getPriceCache() {
+        return priceCache;
+    }
+    
+    /**
+     * Get the number of exchange requests saved by joining in-flight requests.
+     */
+    public long getCoalescedRequestCount() {
+        return requestCoalescer.getSavedRequestCount();
+    }
+    
+    /**
+     * Start a new polling loop based on the current configuration. Any previous loop is
+     * invalidated, so exactly one loop is active.
      */
     private void schedulePeriodicUpdate() {
-        if (!isPeriodicUpdatesEnabled || threadManager.isShutdown()) {
+        synchronized (pollLock) {
+            long generation = ++pollGeneration;
+            cancelPendingPoll();
+            if (isPeriodicUpdatesEnabled && !threadManager.isShutdown()) {
+                pendingPoll = threadManager.scheduleOnce(() -> poll(generation), 0); // Start immediately
+            }
+        }
+    }
+    
+    /**
+     * Fetch the configured symbols once and schedule the next poll of the same generation.
+     */
+    private void poll(long generation) {
+        if (!isCurrentPoll(generation)) {
             return;
         }
         
+        List<String> symbols = configService.getConfig().getSymbols();
+        if (symbols.isEmpty()) {
+            return;
+        }
+        
+        fetchPrices(symbols).whenComplete((prices, throwable) -> {
+            // Schedule next update with retry delay if needed
+            CryptoPluginConfig currentConfig = configService.getConfig();
+            long delay = Math.max(currentConfig.getRefreshInterval(),
+                    Math.max(errorRecoveryManager.getRetryDelay(), rateLimiter.getMillisUntilAllowed()));
+            synchronized (pollLock) {
+                if (isCurrentPoll(generation) && !threadManager.isShutdown()) {
+                    pendingPoll = threadManager.scheduleOnce(() -> poll(generation), delay);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Move the pending poll to a new delay. When a fetch is in flight, its callback already uses
+     * the new interval.
+     */
+    private void reschedulePoll(long delayMs) {
+        synchronized (pollLock) {
+            if (pendingPoll == null || pendingPoll.isDone() || !isPeriodicUpdatesEnabled) {
+                return;
+            }
+            long generation = ++pollGeneration; // Invalidates the old poll if it just started
+            cancelPendingPoll();
+            pendingPoll = threadManager.scheduleOnce(() -> poll(generation), delayMs);
+        }
+    }
+    
+    private boolean isCurrentPoll(long generation) {
+        synchronized (pollLock) {
+            return isPeriodicUpdatesEnabled && generation == pollGeneration;
+        }
+    }
+    
+    /**
+     * Cancel the scheduled poll, if any. Must hold pollLock.
+     */
+    private void cancelPendingPoll() {
+        if (pendingPoll != null) {
+            pendingPoll.cancel(false);
+            pendingPoll = null;
+        }
+    }
+    
+    /**
+     * Open the miniTicker stream for the configured symbols instead of polling.
+     */
+    private void startStreaming() {
         CryptoPluginConfig config = configService.getConfig();
         List<String> symbols = config.getSymbols();
         
@@ -251,35 +740,142 @@ public class BinancePriceService implements PriceService, ConfigChangeListener {
             return;
         }
         
-        Runnable updateTask = () -> {
-            if (isPeriodicUpdatesEnabled) {
-                // Use async approach to avoid blocking
-                fetchPrices(symbols).whenComplete((prices, throwable) -> {
-                    // Schedule next update with retry delay if needed
-                    if (isPeriodicUpdatesEnabled) {
-                        CryptoPluginConfig currentConfig = configService.getConfig();
-                        long delay = Math.max(currentConfig.getRefreshInterval(), errorRecoveryManager.getRetryDelay());
-                        threadManager.scheduleOnce(this::schedulePeriodicUpdate, delay);
-                    }
-                });
+        BinanceStreamClient client = new BinanceStreamClient(httpClient, threadManager, new StreamCallback());
+        streamClient = client;
+        client.start(toTradingPairs(symbols, config.getStableSymbol()));
+    }
+    
+    /**
+     * Close the miniTicker stream if it is open.
+     */
+    private void stopStreaming() {
+        BinanceStreamClient client = streamClient;
+        streamClient = null;
+        if (client != null) {
+            client.stop();
+        }
+    }
+    
+    /**
+     * Check if prices are currently pushed over the WebSocket stream.
+     */
+    public boolean isStreaming() {
+        BinanceStreamClient client = streamClient;
+        return client != null && client.isConnected();
+    }
+    
+    /**
+     * Feeds stream events into the cache and listeners. Ticks are collected for a short window and
+     * applied together, so the cache is copied and listeners are notified once per window instead
+     * of once per symbol event.
+     */
+    private class StreamCallback implements BinanceStreamClient.Callback {
+        
+        private final Object tickLock = new Object();
+        private PriceTable.Builder pendingTicks; // Guarded by tickLock; null while no flush is scheduled
+        
+        @Override
+        public void onTicker(String tradingPair, long unscaled, int scale) {
+            String stableSymbol = configService.getConfig().getStableSymbol();
+            if (!tradingPair.endsWith(stableSymbol)) {
+                return;
+            }
+            
+            String symbol = tradingPair.substring(0, tradingPair.length() - stableSymbol.length());
+            int id = cacheSymbols.intern(symbol);
+            long now = System.currentTimeMillis();
+            boolean firstInWindow;
+            synchronized (tickLock) {
+                firstInWindow = pendingTicks == null;
+                if (firstInWindow) {
+                    pendingTicks = PriceTable.empty(cacheSymbols).toBuilder(now);
+                }
+                pendingTicks.put(id, unscaled, scale, now); // A newer tick of the same symbol replaces the older one
+            }
+            if (firstInWindow && !threadManager.isShutdown()) {
+                threadManager.scheduleOnce(this::flushTicks, STREAM_FLUSH_MS);
+            }
+        }
+        
+        /**
+         * Apply the ticks collected since the last flush with one cache update and one notification.
+         */
+        private void flushTicks() {
+            PriceTable.Builder ticks;
+            synchronized (tickLock) {
+                ticks = pendingTicks;
+                pendingTicks = null;
             }
-        };
+            if (ticks == null || !isPeriodicUpdatesEnabled) {
+                return; // Streaming stopped while the window was open
+            }
+            notifyPriceUpdate(updateCache(ticks.build()).asMap(), true);
+        }
         
-        threadManager.scheduleOnce(updateTask, 0); // Start immediately
+        @Override
+        public void onConnected() {
+            // Resume from a REST snapshot so prices missed while disconnected are filled in
+            List<String> symbols = configService.getConfig().getSymbols();
+            fetchPrices(symbols).exceptionally(throwable -> null);
+        }
+        
+        @Override
+        public void onDisconnected(Throwable error) {
+            if (error == null || !isPeriodicUpdatesEnabled) {
+                return;
+            }
+            
+            // Reconnects have their own backoff; the REST circuit breaker must stay closed so the
+            // snapshot fetch after reconnecting is not rejected
+            Exception exception = error instanceof Exception ? (Exception) error : new RuntimeException(error);
+            isOnline = false;
+            notifyPriceUpdateFailed(exception);
+        }
     }
     
     /**
-     * Handle configuration changes by restarting periodic updates if needed.
+     * Apply only what changed in the configuration. Display settings need nothing here, added
+     * symbols are fetched on their own, removed symbols are unsubscribed and a new interval
+     * reschedules the pending poll. Only a new stable symbol, streaming mode or snapshot mode
+     * restarts updates.
      */
     @Override
     public void onConfigChanged(CryptoPluginConfig oldConfig, CryptoPluginConfig newConfig) {
-        if (isPeriodicUpdatesEnabled) {
-            // Restart periodic updates with new configuration
-            boolean wasEnabled = isPeriodicUpdatesEnabled;
+        if (newConfig.getHistoryCapacity() != tickHistory.getCapacity()) {
+            tickHistory.setCapacity(newConfig.getHistoryCapacity());
+        }
+        
+        ConfigDiff diff = ConfigDiff.between(oldConfig, newConfig);
+        if (!isPeriodicUpdatesEnabled || diff.isDisplayOnly()) {
+            return; // Widgets re-render from the cache
+        }
+        
+        if (diff.isTransportChanged()) {
             stopPeriodicUpdates();
-            if (wasEnabled) {
-                startPeriodicUpdates();
+            startPeriodicUpdates();
+            return;
+        }
+        
+        boolean wasEmpty = oldConfig == null || oldConfig.getSymbols().isEmpty();
+        if (newConfig.isStreamingEnabled()) {
+            BinanceStreamClient client = streamClient;
+            if (client != null) {
+                client.updateSubscriptions(toTradingPairs(newConfig.getSymbols(), newConfig.getStableSymbol()));
+            } else if (wasEmpty) {
+                startStreaming(); // Nothing was streamed without symbols
             }
+        } else if (wasEmpty) {
+            schedulePeriodicUpdate(); // The loop stops while no symbols are configured
+            return;
+        } else if (diff.isIntervalChanged()) {
+            reschedulePoll(newConfig.getRefreshInterval());
+        }
+        
+        if (diff.isSourcesChanged() && !newConfig.isStreamingEnabled()) {
+            // Prices now come from other exchanges, so all of them are fetched again
+            fetchPrices(newConfig.getSymbols()).exceptionally(throwable -> null); // Failures reach listeners
+        } else if (!diff.getAddedSymbols().isEmpty()) {
+            fetchPrices(diff.getAddedSymbols()).exceptionally(throwable -> null); // Failures reach listeners
         }
     }
     
@@ -288,10 +884,26 @@ public class BinancePriceService implements PriceService, ConfigChangeListener {
      */
     public void dispose() {
         stopPeriodicUpdates();
+        threadManager.shutdown();
+        HttpClientConfig.shutdown(); // Its threads would outlive a plugin unload
         configService.removeConfigChangeListener(this);
         listeners.clear();
-        synchronized (priceCache) {
-            priceCache.clear();
+        if (lastSnapshotSave > 0) {
+            saveSnapshot(priceCache.getTable()); // Keep the newest prices for the next startup
+        }
+        priceCache.clear();
+        tickHistory.clear();
+        candles.clear();
+        synchronized (journalLock) {
+            if (tickJournal != null) {
+                try {
+                    tickJournal.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing tick journal: " + e.getMessage());
+                }
+                tickJournal = null;
+            }
+            journalUnavailable = true; // Do not reopen after disposal
         }
     }
     
@@ -0,0 +1,313 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.util.FixedPoint;
+import com.defimore.crypto.util.ThreadManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket client for the Binance miniTicker streams.
+ * Keeps the subscribed streams in sync with the requested trading pairs and
+ * reconnects with exponential backoff whenever the connection drops.
+ */
+public class BinanceStreamClient implements WebSocket.Listener {
+
+    public static final String STREAM_URL = "wss://data-stream.binance.vision/ws";
+
+    private static final String STREAM_SUFFIX = "@miniTicker";
+    private static final long BASE_RECONNECT_DELAY_MS = 1000; // 1 second
+    private static final long MAX_RECONNECT_DELAY_MS = 30000; // 30 seconds
+
+    /**
+     * Callback for stream events.
+     */
+    public interface Callback {
+
+        /**
+         * Called for every miniTicker update.
+         * @param tradingPair Trading pair, e.g. BTCUSDT
+         * @param unscaled Unscaled fixed-point last price
+         * @param scale Scale of the last price
+         */
+        void onTicker(String tradingPair, long unscaled, int scale);
+
+        /**
+         * Called after a connection has been (re)established and subscriptions were sent.
+         */
+        void onConnected();
+
+        /**
+         * Called when the connection has been lost.
+         * @param error Cause, or null for a normal close
+         */
+        void onDisconnected(Throwable error);
+    }
+
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final Callback callback;
+    private final ObjectMapper objectMapper;
+    private final ThreadManager threadManager;
+    private final Set<String> subscribedStreams;
+    private final AtomicInteger requestId;
+    private final StringBuilder messageBuffer;
+
+    private volatile WebSocket webSocket;
+    private ScheduledFuture<?> pendingReconnect;
+    private CompletableFuture<?> pendingSend;
+    private volatile boolean running;
+    private int reconnectAttempts;
+
+    /**
+     * @param threadManager Scheduler for reconnects, owned by the caller
+     */
+    public BinanceStreamClient(HttpClient httpClient, ThreadManager threadManager, Callback callback) {
+        this(httpClient, threadManager, URI.create(STREAM_URL), callback);
+    }
+
+    public BinanceStreamClient(HttpClient httpClient, ThreadManager threadManager, URI endpoint, Callback callback) {
+        this.httpClient = httpClient;
+        this.endpoint = endpoint;
+        this.callback = callback;
+        this.objectMapper = new ObjectMapper();
+        this.threadManager = threadManager;
+        this.subscribedStreams = new LinkedHashSet<>();
+        this.requestId = new AtomicInteger();
+        this.messageBuffer = new StringBuilder();
+        this.pendingSend = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Open the connection and subscribe to the given trading pairs.
+     * @param tradingPairs Trading pairs, e.g. BTCUSDT
+     */
+    public synchronized void start(Collection<String> tradingPairs) {
+        subscribedStreams.clear();
+        for (String pair : tradingPairs) {
+            subscribedStreams.add(toStreamName(pair));
+        }
+        if (running) {
+            return;
+        }
+        running = true;
+        reconnectAttempts = 0;
+        connect();
+    }
+
+    /**
+     * Update the subscriptions, sending SUBSCRIBE/UNSUBSCRIBE only for the difference.
+     * @param tradingPairs Trading pairs that should be streamed
+     */
+    public synchronized void updateSubscriptions(Collection<String> tradingPairs) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String pair : tradingPairs) {
+            wanted.add(toStreamName(pair));
+        }
+
+        List<String> added = new ArrayList<>(wanted);
+        added.removeAll(subscribedStreams);
+        List<String> removed = new ArrayList<>(subscribedStreams);
+        removed.removeAll(wanted);
+
+        subscribedStreams.clear();
+        subscribedStreams.addAll(wanted);
+
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            sendCommand(socket, "UNSUBSCRIBE", removed);
+            sendCommand(socket, "SUBSCRIBE", added);
+        }
+    }
+
+    /**
+     * Close the connection and stop reconnecting.
+     * A stopped client cannot be restarted; create a new one instead.
+     */
+    public void stop() {
+        WebSocket socket;
+        synchronized (this) {
+            running = false;
+            socket = webSocket;
+            webSocket = null;
+            if (pendingReconnect != null) {
+                pendingReconnect.cancel(false);
+                pendingReconnect = null;
+            }
+        }
+        if (socket != null) {
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "").exceptionally(e -> {
+                socket.abort();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Check if the stream is currently connected.
+     * @return true if connected
+     */
+    public boolean isConnected() {
+        return webSocket != null;
+    }
+
+    private void connect() {
+        httpClient.newWebSocketBuilder()
+                .buildAsync(endpoint, this)
+                .whenComplete((socket, throwable) -> {
+                    if (throwable != null) {
+                        callback.onDisconnected(throwable);
+                        scheduleReconnect();
+                    }
+                });
+    }
+
+    private void scheduleReconnect() {
+        synchronized (this) {
+            if (!running || threadManager.isShutdown()) {
+                return;
+            }
+            webSocket = null;
+            reconnectAttempts++;
+            if (pendingReconnect != null) {
+                pendingReconnect.cancel(false); // At most one reconnect is pending
+            }
+            pendingReconnect = threadManager.scheduleOnce(() -> {
+                if (running) {
+                    connect();
+                }
+            }, reconnectDelayMs(reconnectAttempts));
+        }
+    }
+
+    /**
+     * Get the exponential backoff before a reconnect: base * 2^(attempts-1), capped at the maximum.
+     * @param attempts Failed attempts in a row, starting at 1
+     */
+    static long reconnectDelayMs(int attempts) {
+        long delay = BASE_RECONNECT_DELAY_MS * (1L << Math.min(attempts - 1, 5)); // Cap at 2^5
+        return Math.min(delay, MAX_RECONNECT_DELAY_MS);
+    }
+
+    /**
+     * Check if a reconnect is scheduled and has not run yet.
+     */
+    synchronized boolean isReconnectPending() {
+        return pendingReconnect != null && !pendingReconnect.isDone();
+    }
+
+    @Override
+    public void onOpen(WebSocket socket) {
+        List<String> streams;
+        synchronized (this) {
+            if (!running) {
+                socket.abort();
+                return;
+            }
+            webSocket = socket;
+            pendingSend = CompletableFuture.completedFuture(null);
+            messageBuffer.setLength(0); // Drop any partial frame from the previous connection
+            reconnectAttempts = 0;
+            streams = new ArrayList<>(subscribedStreams);
+        }
+
+        sendCommand(socket, "SUBSCRIBE", streams);
+        socket.request(1);
+        callback.onConnected();
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket socket, CharSequence data, boolean last) {
+        messageBuffer.append(data);
+        if (last) {
+            String message = messageBuffer.toString();
+            messageBuffer.setLength(0);
+            handleMessage(message);
+        }
+        socket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket socket, int statusCode, String reason) {
+        callback.onDisconnected(null);
+        scheduleReconnect();
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket socket, Throwable error) {
+        callback.onDisconnected(error);
+        scheduleReconnect();
+    }
+
+    /**
+     * Handle a complete text frame. Both raw and combined-stream payloads are accepted.
+     */
+    private void handleMessage(String message) {
+        try {
+            JsonNode node = objectMapper.readTree(message);
+            if (node.has("data")) {
+                node = node.get("data");
+            }
+            if (!"24hrMiniTicker".equals(node.path("e").asText())) {
+                return; // Subscription acknowledgements and other events
+            }
+
+            String pair = node.path("s").asText(null);
+            String close = node.path("c").asText(null);
+            if (pair != null && close != null) {
+                char[] chars = close.toCharArray();
+                callback.onTicker(pair, FixedPoint.parseUnscaled(chars, 0, chars.length),
+                        FixedPoint.parseScale(chars, 0, chars.length));
+            }
+        } catch (Exception e) {
+            System.err.println("Error handling stream message: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Send a SUBSCRIBE or UNSUBSCRIBE command for the given streams.
+     * Format: {"method":"SUBSCRIBE","params":["btcusdt@miniTicker"],"id":1}
+     */
+    private void sendCommand(WebSocket socket, String method, List<String> streams) {
+        if (streams.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"method\":\"").append(method).append("\",\"params\":[");
+        for (int i = 0; i < streams.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(streams.get(i)).append('"');
+        }
+        sb.append("],\"id\":").append(requestId.incrementAndGet()).append('}');
+
+        // The WebSocket API allows only one outstanding send, so chain them
+        String command = sb.toString();
+        synchronized (this) {
+            pendingSend = pendingSend
+                    .exceptionally(e -> null)
+                    .thenCompose(ignored -> socket.sendText(command, true));
+        }
+    }
+
+    private static String toStreamName(String tradingPair) {
+        return tradingPair.toLowerCase(Locale.ROOT) + STREAM_SUFFIX;
+    }
+}
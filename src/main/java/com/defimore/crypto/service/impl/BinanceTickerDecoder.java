@@ -0,0 +1,187 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.util.FixedPoint;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Streaming decoder for Binance ticker/price responses.
+ * Reads {@code [{"symbol":"BTCUSDT","price":"108699.99000000"}, ...]} token by token from
+ * the response stream and hands fixed-point prices to a sink, without building a response
+ * String, item objects or per-item symbol strings.
+ */
+public class BinanceTickerDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Receives decoded prices.
+     */
+    public interface PriceSink {
+
+        /**
+         * Called once per decoded ticker.
+         * @param pairIndex Index of the trading pair from the {@link SymbolResolver}
+         * @param unscaled Unscaled fixed-point price
+         * @param scale Scale of the price
+         */
+        void accept(int pairIndex, long unscaled, int scale);
+    }
+
+    /**
+     * Resolves trading pair characters to an index for the sink.
+     */
+    public interface SymbolResolver {
+
+        /**
+         * Resolve a trading pair given as a character range.
+         * @return Index passed to the sink, or -1 to skip the ticker
+         */
+        int resolve(char[] buf, int off, int len);
+    }
+
+    /**
+     * Open-addressing lookup from trading pair characters to their position in the requested list,
+     * so the parser's character buffer can be matched without creating Strings.
+     */
+    public static final class PairIndex implements SymbolResolver {
+
+        private final char[][] pairs;
+        private final int[] slots;
+        private final int mask;
+
+        public PairIndex(List<String> tradingPairs) {
+            this.pairs = new char[tradingPairs.size()][];
+            int capacity = Integer.highestOneBit(Math.max(4, tradingPairs.size() * 2) - 1) << 1;
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+
+            for (int i = 0; i < pairs.length; i++) {
+                char[] pair = tradingPairs.get(i).toCharArray();
+                pairs[i] = pair;
+                if (indexOf(pair, 0, pair.length) < 0) {
+                    int slot = hash(pair, 0, pair.length) & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = i + 1; // 0 marks an empty slot
+                }
+            }
+        }
+
+        /**
+         * Look up a trading pair.
+         * @return Index in the requested list, or -1 if the pair was not requested
+         */
+        public int indexOf(char[] buf, int off, int len) {
+            int slot = hash(buf, off, len) & mask;
+            while (slots[slot] != 0) {
+                int index = slots[slot] - 1;
+                if (matches(pairs[index], buf, off, len)) {
+                    return index;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        @Override
+        public int resolve(char[] buf, int off, int len) {
+            return indexOf(buf, off, len);
+        }
+
+        public int size() {
+            return pairs.length;
+        }
+
+        private static boolean matches(char[] pair, char[] buf, int off, int len) {
+            if (pair.length != len) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (pair[i] != buf[off + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(char[] buf, int off, int len) {
+            int h = 0;
+            for (int i = off; i < off + len; i++) {
+                h = 31 * h + buf[i];
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Decode a ticker/price response body. Accepts both the array form and the
+     * single-object form returned for a single {@code symbol} parameter.
+     * @param body Response body stream, not closed by this method
+     * @param pairs Resolver for trading pairs; tickers it does not resolve are skipped
+     * @param sink Receiver for decoded prices
+     * @return Number of prices passed to the sink
+     * @throws IOException if the body is not valid JSON
+     */
+    public int decode(InputStream body, SymbolResolver pairs, PriceSink sink) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                return decodeItem(parser, pairs, sink) ? 1 : 0;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Unexpected ticker response start: " + token);
+            }
+
+            int count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (decodeItem(parser, pairs, sink)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Decode one ticker object. The parser is positioned on its START_OBJECT token.
+     */
+    private boolean decodeItem(JsonParser parser, SymbolResolver pairs, PriceSink sink) throws IOException {
+        int pairIndex = -1;
+        long unscaled = 0;
+        int scale = -1;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName(); // Canonicalized by Jackson, no allocation
+            JsonToken value = parser.nextToken();
+
+            if ("symbol".equals(field) && value == JsonToken.VALUE_STRING) {
+                pairIndex = pairs.resolve(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            } else if ("price".equals(field) && (value == JsonToken.VALUE_STRING || value.isNumeric())) {
+                char[] buf = parser.getTextCharacters();
+                int off = parser.getTextOffset();
+                int len = parser.getTextLength();
+                try {
+                    unscaled = FixedPoint.parseUnscaled(buf, off, len);
+                    scale = FixedPoint.parseScale(buf, off, len);
+                } catch (NumberFormatException e) {
+                    scale = -1; // Skip unparseable prices
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (pairIndex < 0 || scale < 0) {
+            return false;
+        }
+        sink.accept(pairIndex, unscaled, scale);
+        return true;
+    }
+}
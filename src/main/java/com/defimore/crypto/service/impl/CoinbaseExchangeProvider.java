@@ -0,0 +1,103 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.util.CompressedBody;
+import com.defimore.crypto.util.FixedPoint;
+import com.defimore.crypto.util.HttpClientConfig;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Coinbase spot prices. All products come in one request to the public market endpoint:
+ * {@code GET /api/v3/brokerage/market/products?product_ids=BTC-USD&product_ids=ETH-USD} returns
+ * {@code {"products":[{"product_id":"BTC-USD","price":"108699.99",...}, ...]}}. Products Coinbase
+ * does not list are left out of the response. USD stablecoin quotes are read from the USD books,
+ * which Coinbase lists for far more assets.
+ */
+public class CoinbaseExchangeProvider extends RestExchangeProvider {
+
+    public static final String ID = "coinbase";
+    public static final String DEFAULT_BASE_URL = "https://api.coinbase.com";
+
+    private static final String PRODUCTS_PATH = "/api/v3/brokerage/market/products";
+
+    public CoinbaseExchangeProvider() {
+        this(DEFAULT_BASE_URL);
+    }
+
+    public CoinbaseExchangeProvider(String baseUrl) {
+        super(ID, "Coinbase", baseUrl);
+    }
+
+    @Override
+    public CompletableFuture<Void> fetchPrices(HttpClient client, List<String> symbols, String quoteSymbol, PriceSink sink) {
+        String quote = toUsdQuote(quoteSymbol);
+        List<String> products = new ArrayList<>(symbols.size());
+        StringBuilder query = new StringBuilder(PRODUCTS_PATH);
+        for (int i = 0; i < symbols.size(); i++) {
+            String product = symbols.get(i) + "-" + quote;
+            products.add(product);
+            query.append(i == 0 ? "?" : "&").append("product_ids=").append(product);
+        }
+        BinanceTickerDecoder.PairIndex index = new BinanceTickerDecoder.PairIndex(products);
+
+        return get(client, query.toString()).thenAcceptAsync(response -> decode(response, index, sink),
+                HttpClientConfig.getExecutor());
+    }
+
+    private void decode(HttpResponse<CompressedBody> response, BinanceTickerDecoder.PairIndex index, PriceSink sink) {
+        try (JsonParser parser = open(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected Coinbase response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("products".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        decodeProduct(parser, index, sink);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void decodeProduct(JsonParser parser, BinanceTickerDecoder.PairIndex index, PriceSink sink) throws IOException {
+        int symbolIndex = -1;
+        long unscaled = 0;
+        int scale = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("product_id".equals(field) && value == JsonToken.VALUE_STRING) {
+                symbolIndex = index.resolve(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            } else if ("price".equals(field) && value == JsonToken.VALUE_STRING && parser.getTextLength() > 0) {
+                char[] buf = parser.getTextCharacters();
+                int off = parser.getTextOffset();
+                int len = parser.getTextLength();
+                try {
+                    unscaled = FixedPoint.parseUnscaled(buf, off, len);
+                    scale = FixedPoint.parseScale(buf, off, len);
+                } catch (NumberFormatException e) {
+                    scale = -1; // Skip unparseable prices
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (symbolIndex >= 0 && scale >= 0) {
+            sink.accept(symbolIndex, unscaled, scale);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.defimore.crypto.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of equivalent Binance REST hosts with per-host latency and error statistics.
+ * Requests go to the fastest healthy host; the second best is used for hedged requests.
+ * Every few selections a less used host is picked instead, so its statistics stay current.
+ * Unhealthy hosts are only picked that way after they have not failed for a while.
+ */
+public class EndpointPool {
+
+    public static final List<String> BINANCE_HOSTS = Collections.unmodifiableList(Arrays.asList(
+            "https://data-api.binance.vision",
+            "https://api.binance.com",
+            "https://api1.binance.com",
+            "https://api2.binance.com",
+            "https://api3.binance.com",
+            "https://api4.binance.com"));
+
+    private static final int EXPLORE_EVERY = 16; // One selection in 16 refreshes a less used host
+    private static final double UNHEALTHY_ERROR_RATE = 0.5;
+    private static final long UNHEALTHY_RETRY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<Endpoint> endpoints;
+    private final AtomicLong selections = new AtomicLong();
+
+    public EndpointPool() {
+        this(BINANCE_HOSTS);
+    }
+
+    public EndpointPool(List<String> baseUrls) {
+        List<Endpoint> list = new ArrayList<>(baseUrls.size());
+        for (int i = 0; i < baseUrls.size(); i++) {
+            // The first host starts slightly ahead, so it stays the default until hosts are measured
+            list.add(new Endpoint(baseUrls.get(i), i == 0 ? Endpoint.INITIAL_LATENCY_NANOS / 2 : Endpoint.INITIAL_LATENCY_NANOS));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Pick the host for a request: usually the fastest healthy one, sometimes the least recently used.
+     * @return Selected endpoint
+     */
+    public Endpoint select() {
+        if (selections.incrementAndGet() % EXPLORE_EVERY == 0) {
+            long now = System.nanoTime();
+            Endpoint stalest = null;
+            for (Endpoint endpoint : endpoints) {
+                if (!endpoint.isHealthy() && now - endpoint.getLastFailure() < UNHEALTHY_RETRY_NANOS) {
+                    continue; // Still failing, e.g. blocked in this region
+                }
+                if (stalest == null || endpoint.getLastUsed() < stalest.getLastUsed()) {
+                    stalest = endpoint;
+                }
+            }
+            if (stalest != null) {
+                return stalest;
+            }
+        }
+        return best(null);
+    }
+
+    /**
+     * Pick the host for a hedged request.
+     * @param primary Host of the original request
+     * @return Best other healthy host, or null if there is none
+     */
+    public Endpoint selectHedge(Endpoint primary) {
+        Endpoint hedge = best(primary);
+        return hedge != null && hedge.isHealthy() ? hedge : null;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Find the host with the lowest expected latency, penalizing recent errors.
+     * Unhealthy hosts are only chosen when no healthy one is left.
+     */
+    private Endpoint best(Endpoint excluded) {
+        Endpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint == excluded) {
+                continue;
+            }
+            double score = endpoint.score();
+            if (best == null || (endpoint.isHealthy() && !best.isHealthy())
+                    || (endpoint.isHealthy() == best.isHealthy() && score < bestScore)) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One host with its latency EWMA, error rate EWMA and a window of recent latencies.
+     */
+    public static final class Endpoint {
+
+        static final long INITIAL_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+        private static final double LATENCY_ALPHA = 0.2;
+        private static final double ERROR_ALPHA = 0.1;
+        private static final int SAMPLE_WINDOW = 64;
+        private static final int MIN_SAMPLES = 8; // Percentiles need at least this many latencies
+
+        private final String baseUrl;
+        private final long[] samples = new long[SAMPLE_WINDOW];
+        private int sampleCount;
+        private int nextSample;
+        private double latencyEwma;
+        private double errorRate;
+        private volatile long lastUsed;
+        private volatile long lastFailure;
+
+        Endpoint(String baseUrl, long initialLatencyNanos) {
+            this.baseUrl = baseUrl;
+            this.latencyEwma = initialLatencyNanos;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        /**
+         * Mark the host as used by a request that is being sent.
+         */
+        public void markUsed() {
+            lastUsed = System.nanoTime();
+        }
+
+        long getLastUsed() {
+            return lastUsed;
+        }
+
+        long getLastFailure() {
+            return lastFailure;
+        }
+
+        /**
+         * Record a finished request.
+         * @param latencyNanos Time from sending to receiving the full response
+         * @param success false for connection errors, timeouts and error statuses
+         */
+        public synchronized void record(long latencyNanos, boolean success) {
+            errorRate += ERROR_ALPHA * ((success ? 0 : 1) - errorRate);
+            if (!success) {
+                lastFailure = System.nanoTime();
+                return; // Failures often return fast, so they do not count as latency
+            }
+            latencyEwma += LATENCY_ALPHA * (latencyNanos - latencyEwma);
+            samples[nextSample] = latencyNanos;
+            nextSample = (nextSample + 1) % SAMPLE_WINDOW;
+            sampleCount = Math.min(sampleCount + 1, SAMPLE_WINDOW);
+        }
+
+        /**
+         * Get a latency percentile over the recent window.
+         * @param percentile Percentile between 0 and 1, e.g. 0.95
+         * @return Latency in nanoseconds, or -1 if there are too few samples
+         */
+        public synchronized long getLatencyPercentile(double percentile) {
+            if (sampleCount < MIN_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        public synchronized long getLatencyEwma() {
+            return (long) latencyEwma;
+        }
+
+        public synchronized double getErrorRate() {
+            return errorRate;
+        }
+
+        public synchronized boolean isHealthy() {
+            return errorRate < UNHEALTHY_ERROR_RATE;
+        }
+
+        synchronized double score() {
+            return latencyEwma * (1 + 4 * errorRate);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return baseUrl + " (" + TimeUnit.NANOSECONDS.toMillis((long) latencyEwma) + " ms, "
+                    + Math.round(errorRate * 100) + "% errors)";
+        }
+    }
+}
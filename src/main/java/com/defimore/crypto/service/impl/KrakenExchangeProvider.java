@@ -0,0 +1,229 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.util.CompressedBody;
+import com.defimore.crypto.util.HttpClientConfig;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kraken spot prices. All pairs come in one request:
+ * {@code {"error":[],"result":{"XXBTZUSD":{"c":["108699.9","0.01"],...}, ...}}}, where {@code c}
+ * holds the last trade price and volume. USD stablecoin quotes are read from the USD books,
+ * which list far more assets.
+ * <p>
+ * Kraken rejects the whole request if one pair is not listed, so symbols are first checked
+ * against the listed pairs from {@code /0/public/AssetPairs}, which are cached for a few hours.
+ */
+public class KrakenExchangeProvider extends RestExchangeProvider {
+
+    public static final String ID = "kraken";
+    public static final String DEFAULT_BASE_URL = "https://api.kraken.com";
+
+    private static final String TICKER_PATH = "/0/public/Ticker?pair=";
+    private static final String ASSET_PAIRS_PATH = "/0/public/AssetPairs";
+    private static final String UNKNOWN_PAIR_ERROR = "EQuery:Unknown asset pair";
+    private static final long ASSET_PAIRS_TTL_NANOS = TimeUnit.HOURS.toNanos(6);
+    private static final long ASSET_PAIRS_RETRY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private volatile AssetPairs assetPairs; // Null until loaded or after an unknown pair error
+
+    public KrakenExchangeProvider() {
+        this(DEFAULT_BASE_URL);
+    }
+
+    public KrakenExchangeProvider(String baseUrl) {
+        super(ID, "Kraken", baseUrl);
+    }
+
+    @Override
+    public CompletableFuture<Void> fetchPrices(HttpClient client, List<String> symbols, String quoteSymbol, PriceSink sink) {
+        return listedPairs(client).thenCompose(listed -> fetchTickers(client, symbols, quoteSymbol, listed, sink));
+    }
+
+    private CompletableFuture<Void> fetchTickers(HttpClient client, List<String> symbols, String quoteSymbol,
+                                                 Set<String> listed, PriceSink sink) {
+        // Results are keyed by the pair name, which is the legacy X/Z form for older fiat pairs
+        List<String> names = new ArrayList<>(symbols.size() * 2);
+        int[] symbolIndexes = new int[symbols.size()];
+        int requested = 0;
+        StringBuilder query = new StringBuilder(TICKER_PATH);
+        String quote = toKrakenAsset(toUsdQuote(quoteSymbol));
+        for (int i = 0; i < symbols.size(); i++) {
+            String base = toKrakenAsset(symbols.get(i));
+            if (listed != null && !listed.contains(base + quote)) {
+                continue; // Not traded on Kraken
+            }
+            names.add(base + quote);
+            names.add("X" + base + "Z" + quote);
+            query.append(requested == 0 ? "" : ",").append(base).append(quote);
+            symbolIndexes[requested++] = i;
+        }
+        if (requested == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        BinanceTickerDecoder.PairIndex index = new BinanceTickerDecoder.PairIndex(names);
+
+        return get(client, query.toString()).thenAcceptAsync(response -> decode(response, index, symbolIndexes, sink),
+                HttpClientConfig.getExecutor());
+    }
+
+    /**
+     * Get the names of all listed pairs, loading them if the cached ones are too old.
+     * @return Future with the pair names, or null if they are unavailable and symbols are not filtered
+     */
+    private CompletableFuture<Set<String>> listedPairs(HttpClient client) {
+        AssetPairs cached = assetPairs;
+        long maxAge = cached != null && cached.names != null ? ASSET_PAIRS_TTL_NANOS : ASSET_PAIRS_RETRY_NANOS;
+        if (cached != null && System.nanoTime() - cached.loadedAt < maxAge) {
+            return CompletableFuture.completedFuture(cached.names);
+        }
+        return get(client, ASSET_PAIRS_PATH)
+                .thenApplyAsync(this::decodeAssetPairs, HttpClientConfig.getExecutor())
+                .handle((names, error) -> {
+                    // Without the list all symbols are requested, as one unlisted pair only fails this source
+                    assetPairs = new AssetPairs(error == null ? names : null, System.nanoTime());
+                    return error == null ? names : null;
+                });
+    }
+
+    /**
+     * Map a symbol to Kraken's asset code, which differs for a few assets.
+     */
+    static String toKrakenAsset(String symbol) {
+        switch (symbol) {
+            case "BTC":
+                return "XBT";
+            case "DOGE":
+                return "XDG";
+            default:
+                return symbol;
+        }
+    }
+
+    private Set<String> decodeAssetPairs(HttpResponse<CompressedBody> response) {
+        Set<String> names = new HashSet<>();
+        try (JsonParser parser = open(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected Kraken response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("result".equals(field) && value == JsonToken.START_OBJECT) {
+                    // {"XXBTZUSD":{"altname":"XBTUSD",...}, ...}
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        names.add(parser.getCurrentName());
+                        parser.nextToken();
+                        readAltName(parser, names);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalStateException("Kraken listed no asset pairs");
+        }
+        return names;
+    }
+
+    private static void readAltName(JsonParser parser, Set<String> names) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("altname".equals(field) && value == JsonToken.VALUE_STRING) {
+                names.add(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void decode(HttpResponse<CompressedBody> response, BinanceTickerDecoder.PairIndex index, int[] symbolIndexes,
+                        PriceSink sink) {
+        try (JsonParser parser = open(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected Kraken response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("error".equals(field) && value == JsonToken.START_ARRAY) {
+                    // One unknown pair fails the whole request
+                    List<String> errors = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        errors.add(parser.getText());
+                    }
+                    if (errors.contains(UNKNOWN_PAIR_ERROR)) {
+                        assetPairs = null; // A pair was delisted, reload the list on the next update
+                    }
+                    if (!errors.isEmpty()) {
+                        throw new IOException("Kraken error: " + String.join(", ", errors));
+                    }
+                } else if ("result".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        int nameIndex = index.resolve(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                        parser.nextToken();
+                        decodeTicker(parser, nameIndex < 0 ? -1 : symbolIndexes[nameIndex / 2], sink);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void decodeTicker(JsonParser parser, int symbolIndex, PriceSink sink) throws IOException {
+        if (symbolIndex < 0 || parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("c".equals(field) && value == JsonToken.START_ARRAY) {
+                if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    acceptPrice(parser, symbolIndex, sink);
+                }
+                while (parser.currentToken() != JsonToken.END_ARRAY) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Listed pair names with the time they were loaded.
+     */
+    private static final class AssetPairs {
+        private final Set<String> names; // Null if loading failed
+        private final long loadedAt;
+
+        private AssetPairs(Set<String> names, long loadedAt) {
+            this.names = names;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.util.CompressedBody;
+import com.defimore.crypto.util.FixedPoint;
+import com.defimore.crypto.util.HttpClientConfig;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OKX spot prices. All spot tickers come in one request:
+ * {@code {"code":"0","msg":"","data":[{"instId":"BTC-USDT","last":"108699.9",...}, ...]}}.
+ */
+public class OkxExchangeProvider extends RestExchangeProvider {
+
+    public static final String ID = "okx";
+    public static final String DEFAULT_BASE_URL = "https://www.okx.com";
+
+    private static final String TICKERS_PATH = "/api/v5/market/tickers?instType=SPOT";
+
+    public OkxExchangeProvider() {
+        this(DEFAULT_BASE_URL);
+    }
+
+    public OkxExchangeProvider(String baseUrl) {
+        super(ID, "OKX", baseUrl);
+    }
+
+    @Override
+    public CompletableFuture<Void> fetchPrices(HttpClient client, List<String> symbols, String quoteSymbol, PriceSink sink) {
+        List<String> instruments = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            instruments.add(symbol + "-" + quoteSymbol);
+        }
+        BinanceTickerDecoder.PairIndex index = new BinanceTickerDecoder.PairIndex(instruments);
+
+        return get(client, TICKERS_PATH).thenAcceptAsync(response -> decode(response, index, sink),
+                HttpClientConfig.getExecutor());
+    }
+
+    private void decode(HttpResponse<CompressedBody> response, BinanceTickerDecoder.PairIndex index, PriceSink sink) {
+        try (JsonParser parser = open(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected OKX response");
+            }
+            String code = null;
+            String message = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("code".equals(field)) {
+                    code = parser.getText();
+                } else if ("msg".equals(field)) {
+                    message = parser.getText();
+                } else if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        decodeTicker(parser, index, sink);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (code != null && !"0".equals(code)) {
+                throw new IOException("OKX error " + code + ": " + message);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void decodeTicker(JsonParser parser, BinanceTickerDecoder.PairIndex index, PriceSink sink) throws IOException {
+        int symbolIndex = -1;
+        long unscaled = 0;
+        int scale = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("instId".equals(field) && value == JsonToken.VALUE_STRING) {
+                symbolIndex = index.resolve(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            } else if ("last".equals(field) && value == JsonToken.VALUE_STRING && parser.getTextLength() > 0) {
+                char[] buf = parser.getTextCharacters();
+                int off = parser.getTextOffset();
+                int len = parser.getTextLength();
+                try {
+                    unscaled = FixedPoint.parseUnscaled(buf, off, len);
+                    scale = FixedPoint.parseScale(buf, off, len);
+                } catch (NumberFormatException e) {
+                    scale = -1; // Skip unparseable prices
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (symbolIndex >= 0 && scale >= 0) {
+            sink.accept(symbolIndex, unscaled, scale);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import com.defimore.crypto.util.FixedPoint;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+/**
+ * Merges the prices of several sources into one table by taking the median per symbol.
+ * With three or more sources a single wrong or stale exchange cannot move the result;
+ * with two the median is their mean.
+ */
+public final class PriceConsensus {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final MathContext MAX_PRECISION = new MathContext(FixedPoint.MAX_DIGITS);
+
+    private PriceConsensus() {
+    }
+
+    /**
+     * Build the median table of the given sources.
+     * @param tables Prices of each source, all using the given dictionary
+     * @param ids Symbol ids to merge
+     * @param dictionary Dictionary of the tables
+     * @param timestamp Fetch time of the merged prices
+     * @return Table with the median of every symbol at least one source has a price for
+     */
+    public static PriceTable median(List<PriceTable> tables, int[] ids, SymbolDictionary dictionary, long timestamp) {
+        PriceTable.Builder merged = PriceTable.empty(dictionary).toBuilder(timestamp);
+        long[] unscaled = new long[tables.size()];
+        int[] scales = new int[tables.size()];
+
+        for (int id : ids) {
+            // Insertion sort; there are only a handful of sources
+            int count = 0;
+            for (PriceTable table : tables) {
+                if (!table.has(id)) {
+                    continue;
+                }
+                long value = table.getUnscaled(id);
+                int scale = table.getScale(id);
+                int i = count++;
+                while (i > 0 && FixedPoint.compare(unscaled[i - 1], scales[i - 1], value, scale) > 0) {
+                    unscaled[i] = unscaled[i - 1];
+                    scales[i] = scales[i - 1];
+                    i--;
+                }
+                unscaled[i] = value;
+                scales[i] = scale;
+            }
+
+            if (count == 0) {
+                continue;
+            }
+            int middle = count / 2;
+            if (count % 2 == 1) {
+                merged.put(id, unscaled[middle], scales[middle]);
+            } else {
+                putMean(merged, id, unscaled[middle - 1], scales[middle - 1], unscaled[middle], scales[middle]);
+            }
+        }
+        return merged.build();
+    }
+
+    private static void putMean(PriceTable.Builder merged, int id, long unscaled1, int scale1, long unscaled2, int scale2) {
+        BigDecimal mean = FixedPoint.toBigDecimal(unscaled1, scale1)
+                .add(FixedPoint.toBigDecimal(unscaled2, scale2))
+                .divide(TWO) // Exact, halving always terminates
+                .round(MAX_PRECISION)
+                .stripTrailingZeros();
+        if (mean.scale() < 0) {
+            mean = mean.setScale(0);
+        }
+        merged.put(id, mean.unscaledValue().longValueExact(), mean.scale());
+    }
+}
@@ -0,0 +1,103 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Compact binary file with the last known prices, used to show prices right after startup.
+ * Layout: magic (int), version (short), entry count (int), then per entry the symbol (modified
+ * UTF-8), fetch time (long), unscaled price (long) and scale (byte).
+ */
+public class PriceSnapshotFile {
+
+    private static final int MAGIC = 0x43505331; // "CPS1"
+    private static final short VERSION = 1;
+    private static final int MAX_ENTRIES = 100000;
+
+    private final Path path;
+
+    public PriceSnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Write all prices of a table. The file is replaced atomically, so a crash while saving
+     * keeps the previous snapshot.
+     * @throws IOException if the file cannot be written
+     */
+    public void save(PriceTable table) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        SymbolDictionary dictionary = table.getDictionary();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(table.size());
+            for (int id = 0; id < table.capacity(); id++) {
+                if (table.has(id)) {
+                    out.writeUTF(dictionary.nameOf(id));
+                    out.writeLong(table.getTimestamp(id));
+                    out.writeLong(table.getUnscaled(id));
+                    out.writeByte(table.getScale(id));
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the saved prices into a table, keeping their original fetch times.
+     * @param dictionary Dictionary to intern the symbols into
+     * @return Table with the saved prices, empty if there is no valid snapshot
+     * @throws IOException if the file exists but cannot be read
+     */
+    public PriceTable load(SymbolDictionary dictionary) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return PriceTable.empty(dictionary);
+            }
+            int count = in.readInt();
+            if (count < 0 || count > MAX_ENTRIES) {
+                return PriceTable.empty(dictionary);
+            }
+
+            int[] ids = new int[count];
+            long[] timestamps = new long[count];
+            long[] unscaled = new long[count];
+            byte[] scales = new byte[count];
+            long newest = 0;
+            for (int i = 0; i < count; i++) {
+                ids[i] = dictionary.intern(in.readUTF());
+                timestamps[i] = in.readLong();
+                unscaled[i] = in.readLong();
+                scales[i] = in.readByte();
+                newest = Math.max(newest, timestamps[i]);
+            }
+
+            PriceTable.Builder builder = PriceTable.empty(dictionary).toBuilder(newest);
+            for (int i = 0; i < count; i++) {
+                if (timestamps[i] > 0) {
+                    builder.put(ids[i], unscaled[i], scales[i], timestamps[i]);
+                }
+            }
+            return builder.build();
+        } catch (NoSuchFileException e) {
+            return PriceTable.empty(dictionary);
+        }
+    }
+}
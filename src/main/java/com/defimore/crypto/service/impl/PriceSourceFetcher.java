@@ -0,0 +1,152 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.model.CryptoPluginConfig;
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import com.defimore.crypto.service.ErrorRecoveryManager;
+import com.defimore.crypto.service.ExchangeProvider;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Fetches prices from the configured price sources: the built-in Binance source and the
+ * registered exchange providers. With a single source its prices are used as they are; with
+ * several the median of the sources that answered in time is used.
+ */
+class PriceSourceFetcher {
+
+    /**
+     * Fetches the given pairs from Binance.
+     */
+    interface BinanceSource {
+        CompletableFuture<PriceTable> fetch(CryptoPluginConfig config, int[] ids, List<String> tradingPairs);
+    }
+
+    private final HttpClient httpClient;
+    private final SymbolDictionary symbols;
+    private final BinanceSource binance;
+    private final Function<List<String>, List<ExchangeProvider>> providerLookup;
+
+    /**
+     * @param httpClient Client passed to the exchange providers
+     * @param symbols Dictionary of the fetched tables
+     * @param binance Built-in Binance source
+     * @param providerLookup Finds the installed providers for the configured source ids, in order
+     */
+    PriceSourceFetcher(HttpClient httpClient, SymbolDictionary symbols, BinanceSource binance,
+                       Function<List<String>, List<ExchangeProvider>> providerLookup) {
+        this.httpClient = httpClient;
+        this.symbols = symbols;
+        this.binance = binance;
+        this.providerLookup = providerLookup;
+    }
+
+    /**
+     * Fetch the symbols from all configured price sources.
+     * @param ids Symbol ids, in the same order as the symbols
+     * @param tradingPairs Binance trading pairs, in the same order as the symbols
+     * @return Future with the fetched prices; fails only if every source failed
+     */
+    CompletableFuture<PriceTable> fetch(CryptoPluginConfig config, List<String> symbolNames, int[] ids,
+                                        List<String> tradingPairs) {
+        List<String> sourceIds = config.getPriceSources();
+        List<ExchangeProvider> providers = providerLookup.apply(sourceIds);
+        if (providers.isEmpty()) {
+            return binance.fetch(config, ids, tradingPairs); // Also when no configured provider is installed
+        }
+        boolean useBinance = sourceIds.contains(CryptoPluginConfig.BINANCE_SOURCE);
+
+        // Every source runs in parallel under its own timeout, so a slow exchange is only left out
+        List<String> names = new ArrayList<>();
+        List<CompletableFuture<PriceTable>> sources = new ArrayList<>();
+        if (useBinance) {
+            names.add("Binance");
+            sources.add(binance.fetch(config, ids, tradingPairs)
+                    .orTimeout(ExchangeProvider.DEFAULT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        for (ExchangeProvider provider : providers) {
+            names.add(provider.getDisplayName());
+            sources.add(fetchFromProvider(provider, config, symbolNames, ids)
+                    .orTimeout(provider.getTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        PriceTable[] results = new PriceTable[sources.size()];
+        Throwable[] errors = new Throwable[sources.size()];
+        CompletableFuture<?>[] settled = new CompletableFuture<?>[sources.size()];
+        for (int i = 0; i < settled.length; i++) {
+            int source = i;
+            settled[i] = sources.get(i).handle((table, throwable) -> {
+                if (throwable != null) {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    errors[source] = cause;
+                    System.err.println("Price source " + names.get(source) + " failed: "
+                            + (cause instanceof TimeoutException ? "timed out" : cause.getMessage()));
+                } else {
+                    results[source] = table;
+                }
+                return null;
+            });
+        }
+
+        return CompletableFuture.allOf(settled).thenApply(ignored -> {
+            List<PriceTable> answered = new ArrayList<>(results.length);
+            for (PriceTable table : results) {
+                if (table != null) {
+                    answered.add(table);
+                }
+            }
+            if (answered.isEmpty()) {
+                throw new CompletionException(errors[0]); // Keeps Binance rate limit errors recognizable
+            }
+            return answered.size() == 1 ? answered.get(0)
+                    : PriceConsensus.median(answered, ids, symbols, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Send the half-open probe: the first symbol alone through the configured sources. If any
+     * source answers, the circuit closes and all symbols are fetched; a failed probe is reported
+     * by the caller, which opens the circuit again.
+     */
+    CompletableFuture<PriceTable> probe(ErrorRecoveryManager breaker, CryptoPluginConfig config, List<String> symbolNames,
+                                        int[] ids, List<String> tradingPairs) {
+        return fetch(config, symbolNames.subList(0, 1), new int[] {ids[0]}, tradingPairs.subList(0, 1))
+                .thenCompose(probe -> {
+                    breaker.onSuccess();
+                    return fetch(config, symbolNames, ids, tradingPairs);
+                });
+    }
+
+    /**
+     * Fetch the symbols from an exchange provider into a table using the shared dictionary.
+     */
+    private CompletableFuture<PriceTable> fetchFromProvider(ExchangeProvider provider, CryptoPluginConfig config,
+                                                            List<String> symbolNames, int[] ids) {
+        PriceTable.Builder fetched = PriceTable.empty(symbols).toBuilder(System.currentTimeMillis());
+        ExchangeProvider.PriceSink sink = (index, unscaled, scale) -> {
+            synchronized (fetched) {
+                fetched.put(ids[index], unscaled, scale);
+            }
+        };
+
+        CompletableFuture<Void> call;
+        try {
+            call = provider.fetchPrices(httpClient, symbolNames, config.getStableSymbol(), sink);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e); // A broken provider must not fail the other sources
+        }
+        return call.thenApply(ignored -> {
+            synchronized (fetched) {
+                return fetched.build();
+            }
+        });
+    }
+}
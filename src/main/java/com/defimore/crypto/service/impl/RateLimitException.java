@@ -0,0 +1,35 @@
+package com.defimore.crypto.service.impl;
+
+/**
+ * Signals that Binance rate limits stopped a request: HTTP 429 (slow down), HTTP 418 (IP ban),
+ * or a local wait that would be too long. It is not a connection problem, so it does not count
+ * towards the error backoff.
+ */
+public class RateLimitException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean banned;
+    private final long retryAfterMs;
+
+    public RateLimitException(String message, boolean banned, long retryAfterMs) {
+        super(message);
+        this.banned = banned;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * Check if the IP address was banned (HTTP 418).
+     */
+    public boolean isBanned() {
+        return banned;
+    }
+
+    /**
+     * Get the time until requests are allowed again.
+     * @return Milliseconds to wait
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,235 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.util.HttpClientConfig;
+
+import java.net.http.HttpHeaders;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side token bucket for the Binance request-weight limit.
+ * <p>
+ * The bucket holds up to one minute of weight and refills continuously. Callers reserve weight
+ * through {@link #acquire(int)}; when the bucket is empty the reservation is still taken and the
+ * returned future completes once it is covered, so callers are served in order instead of failing.
+ * <p>
+ * The {@code X-MBX-USED-WEIGHT-1M} header is counted per IP address, so it also reflects other
+ * clients behind the same NAT; the local bucket never holds more than the server says is left.
+ * HTTP 429 and 418 responses stop all requests until their {@code Retry-After}.
+ */
+public class RateLimiter {
+
+    public static final String USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1M";
+    public static final String LEGACY_USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+    public static final int DEFAULT_WEIGHT_LIMIT = 6000; // Binance REQUEST_WEIGHT per minute per IP
+
+    public static final int HTTP_TOO_MANY_REQUESTS = 429;
+    public static final int HTTP_IP_BANNED = 418;
+
+    private static final long WINDOW_MS = 60000; // 1 minute
+    private static final long MAX_QUEUE_WAIT_MS = 30000; // Longer waits fail instead of queueing
+    private static final long DEFAULT_SLOW_DOWN_MS = 60000; // 429 without Retry-After
+    private static final long DEFAULT_BAN_MS = 120000; // 418 without Retry-After; bans start at 2 minutes
+
+    private final int weightLimit;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+    private long blockedUntil; // nanoTime; requests wait until then after 429/418
+    private boolean banned;
+
+    public RateLimiter() {
+        this(DEFAULT_WEIGHT_LIMIT);
+    }
+
+    public RateLimiter(int weightLimit) {
+        this.weightLimit = weightLimit;
+        this.tokensPerNano = weightLimit / (double) TimeUnit.MILLISECONDS.toNanos(WINDOW_MS);
+        this.tokens = weightLimit;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Reserve weight for a request.
+     * @param weight Weight of the request
+     * @return Future that completes when the request may be sent, or fails with a
+     *         {@link RateLimitException} if that would take longer than the queue allows
+     */
+    public CompletableFuture<Void> acquire(int weight) {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+
+            long blockedNanos = Math.max(0, blockedUntil - now);
+            tokens -= weight; // Reserve even when short, so later callers queue behind this one
+            long debtNanos = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+            waitNanos = Math.max(blockedNanos, debtNanos);
+
+            if (waitNanos > TimeUnit.MILLISECONDS.toNanos(MAX_QUEUE_WAIT_MS)) {
+                tokens += weight;
+                long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+                String reason = banned && blockedNanos > 0 ? "IP banned by Binance" : "Request rate limit reached";
+                return CompletableFuture.failedFuture(new RateLimitException(
+                        reason + ", retry in " + waitMs + " ms", banned && blockedNanos > 0, waitMs));
+            }
+        }
+
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, HttpClientConfig.getExecutor()));
+    }
+
+    /**
+     * Reserve weight only if it is available right now, e.g. for optional hedged requests.
+     * @param weight Weight of the request
+     * @return true if the weight was reserved
+     */
+    public synchronized boolean tryAcquire(int weight) {
+        long now = System.nanoTime();
+        refill(now);
+        if (blockedUntil - now > 0 || tokens < weight) {
+            return false;
+        }
+        tokens -= weight;
+        return true;
+    }
+
+    /**
+     * Update the limiter from the headers of a response.
+     * @param statusCode HTTP status code
+     * @param headers Response headers
+     * @throws RateLimitException if the response is a 429 or 418
+     */
+    public void onResponse(int statusCode, HttpHeaders headers) {
+        Optional<String> used = headers.firstValue(USED_WEIGHT_HEADER);
+        if (used.isEmpty()) {
+            used = headers.firstValue(LEGACY_USED_WEIGHT_HEADER);
+        }
+        used.ifPresent(value -> {
+            try {
+                updateUsedWeight(Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                // Ignore malformed header values
+            }
+        });
+
+        if (isRateLimited(statusCode)) {
+            boolean ban = statusCode == HTTP_IP_BANNED;
+            long retryAfterMs = parseRetryAfter(headers.firstValue(RETRY_AFTER_HEADER).orElse(null),
+                    ban ? DEFAULT_BAN_MS : DEFAULT_SLOW_DOWN_MS);
+            block(retryAfterMs, ban);
+            throw new RateLimitException((ban ? "HTTP 418: IP banned by Binance" : "HTTP 429: Too many requests")
+                    + ", retry in " + retryAfterMs + " ms", ban, retryAfterMs);
+        }
+    }
+
+    /**
+     * Check if a status means the rate limits stopped the request (HTTP 429 or 418).
+     * The limits apply to the IP address, so such a response says nothing about the host.
+     */
+    public static boolean isRateLimited(int statusCode) {
+        return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode == HTTP_IP_BANNED;
+    }
+
+    /**
+     * Limit the local bucket to what the server reports as left in its current minute.
+     * @param serverUsedWeight Used weight reported by the server
+     */
+    public synchronized void updateUsedWeight(int serverUsedWeight) {
+        refill(System.nanoTime());
+        int available = weightLimit - serverUsedWeight;
+        if (tokens > available) {
+            tokens = available;
+        }
+        if (available <= 0) {
+            // The server counts calendar minutes, so nothing is left until the next one starts
+            long now = System.currentTimeMillis();
+            blockUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WINDOW_MS - now % WINDOW_MS), false);
+        }
+    }
+
+    /**
+     * Stop all requests for a while.
+     * @param durationMs How long to wait
+     * @param ban true if the IP address was banned
+     */
+    public synchronized void block(long durationMs, boolean ban) {
+        blockUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs), ban);
+    }
+
+    /**
+     * Get the time until queued reservations are covered and no block is active.
+     * @return Milliseconds to wait, 0 if requests are allowed now
+     */
+    public synchronized long getMillisUntilAllowed() {
+        long now = System.nanoTime();
+        refill(now);
+        long blockedNanos = Math.max(0, blockedUntil - now);
+        long debtNanos = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(blockedNanos, debtNanos));
+    }
+
+    /**
+     * Check if requests are stopped because of an IP ban.
+     */
+    public synchronized boolean isBanned() {
+        return banned && blockedUntil - System.nanoTime() > 0;
+    }
+
+    /**
+     * Get the weight available right now.
+     * @return Available weight, 0 if callers are queued
+     */
+    public synchronized int getAvailableWeight() {
+        refill(System.nanoTime());
+        return (int) Math.max(0, tokens);
+    }
+
+    public int getWeightLimit() {
+        return weightLimit;
+    }
+
+    private void blockUntil(long until, boolean ban) {
+        if (until - blockedUntil > 0) {
+            blockedUntil = until;
+            banned = ban;
+        } else if (ban) {
+            banned = true;
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(weightLimit, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+    /**
+     * Parse a Retry-After value given in seconds or as an HTTP date.
+     * @return Delay in milliseconds, or the default if the value is missing or malformed
+     */
+    static long parseRetryAfter(String value, long defaultMs) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultMs;
+        }
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed) * 1000);
+        } catch (NumberFormatException e) {
+            // Not a number of seconds; try the date form
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            return defaultMs;
+        }
+    }
+}
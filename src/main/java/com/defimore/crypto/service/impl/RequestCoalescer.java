@@ -0,0 +1,152 @@
+package com.defimore.crypto.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight coalescing for price requests.
+ * A caller whose symbols are already being fetched joins the in-flight exchange call instead of
+ * sending its own request; only symbols that nobody is fetching yet go out in a new call.
+ */
+public class RequestCoalescer {
+
+    /**
+     * The underlying exchange call.
+     */
+    public interface Exchange {
+
+        /**
+         * Fetch prices for the given symbols from the exchange.
+         * @param symbols Symbols to fetch
+         * @return Future containing map of symbol to price
+         */
+        CompletableFuture<Map<String, BigDecimal>> fetch(List<String> symbols);
+    }
+
+    private final Exchange exchange;
+    private final List<InFlight> inFlight;
+    private final AtomicLong savedRequests;
+    private final AtomicLong exchangeRequests;
+
+    public RequestCoalescer(Exchange exchange) {
+        this.exchange = exchange;
+        this.inFlight = new ArrayList<>();
+        this.savedRequests = new AtomicLong();
+        this.exchangeRequests = new AtomicLong();
+    }
+
+    /**
+     * Fetch prices, joining any in-flight exchange calls that already cover some of the symbols.
+     * @param symbols Symbols to fetch
+     * @return Future containing map of symbol to price for the requested symbols
+     */
+    public CompletableFuture<Map<String, BigDecimal>> fetch(List<String> symbols) {
+        Set<String> missing = new LinkedHashSet<>(symbols);
+        List<CompletableFuture<Map<String, BigDecimal>>> parts = new ArrayList<>();
+        InFlight own = null;
+
+        synchronized (inFlight) {
+            for (InFlight call : inFlight) {
+                if (missing.removeAll(call.symbols)) {
+                    parts.add(call.future);
+                }
+            }
+            if (!missing.isEmpty()) {
+                own = new InFlight(missing);
+                inFlight.add(own);
+                parts.add(own.future);
+            }
+        }
+
+        if (own == null) {
+            savedRequests.incrementAndGet();
+        } else {
+            start(own);
+        }
+
+        if (parts.size() == 1 && own != null) {
+            return own.future.copy(); // Callers must not be able to complete the shared future
+        }
+        return combine(parts, symbols);
+    }
+
+    /**
+     * Get the number of exchange calls that were avoided because a caller joined an in-flight call.
+     * @return Saved request count
+     */
+    public long getSavedRequestCount() {
+        return savedRequests.get();
+    }
+
+    /**
+     * Get the number of calls actually sent to the exchange.
+     * @return Exchange request count
+     */
+    public long getExchangeRequestCount() {
+        return exchangeRequests.get();
+    }
+
+    private void start(InFlight call) {
+        exchangeRequests.incrementAndGet();
+
+        CompletableFuture<Map<String, BigDecimal>> result;
+        try {
+            result = exchange.fetch(new ArrayList<>(call.symbols));
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((prices, throwable) -> {
+            // Leave the in-flight list first so later callers start a fresh request
+            synchronized (inFlight) {
+                inFlight.remove(call);
+            }
+            if (throwable != null) {
+                call.future.completeExceptionally(throwable);
+            } else {
+                call.future.complete(prices);
+            }
+        });
+    }
+
+    /**
+     * Merge the results of all joined calls, keeping only the symbols this caller asked for.
+     */
+    private static CompletableFuture<Map<String, BigDecimal>> combine(
+            List<CompletableFuture<Map<String, BigDecimal>>> parts, List<String> symbols) {
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, BigDecimal> merged = new HashMap<>();
+            for (CompletableFuture<Map<String, BigDecimal>> part : parts) {
+                Map<String, BigDecimal> prices = part.join();
+                for (String symbol : symbols) {
+                    BigDecimal price = prices.get(symbol);
+                    if (price != null) {
+                        merged.put(symbol, price);
+                    }
+                }
+            }
+            return merged;
+        });
+    }
+
+    /**
+     * An exchange call that is currently running.
+     */
+    private static final class InFlight {
+
+        private final Set<String> symbols;
+        private final CompletableFuture<Map<String, BigDecimal>> future;
+
+        private InFlight(Set<String> symbols) {
+            this.symbols = symbols;
+            this.future = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.service.ExchangeProvider;
+import com.defimore.crypto.util.CompressedBody;
+import com.defimore.crypto.util.FixedPoint;
+import com.defimore.crypto.util.TransferStats;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base class for exchange providers that read public REST ticker endpoints.
+ * Responses are parsed token by token, like {@link BinanceTickerDecoder}.
+ */
+public abstract class RestExchangeProvider implements ExchangeProvider {
+
+    protected static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String id;
+    private final String displayName;
+    private final String baseUrl;
+    private final TransferStats transferStats = new TransferStats();
+
+    protected RestExchangeProvider(String id, String displayName, String baseUrl) {
+        this.id = id;
+        this.displayName = displayName;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get the received and decoded sizes of this provider's responses.
+     */
+    public TransferStats getTransferStats() {
+        return transferStats;
+    }
+
+    /**
+     * Send a GET request relative to the base URL, bounded by the provider timeout.
+     * The response may be compressed and must be read through {@link #open(HttpResponse)}.
+     */
+    protected CompletableFuture<HttpResponse<CompressedBody>> get(HttpClient client, String pathAndQuery) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + pathAndQuery))
+                .timeout(getTimeout())
+                .header("Accept", "application/json")
+                .header(CompressedBody.ACCEPT_ENCODING_HEADER, CompressedBody.ACCEPT_ENCODING)
+                .GET()
+                .build();
+        return client.sendAsync(request, CompressedBody.handler(transferStats));
+    }
+
+    /**
+     * Open a parser on a successful response, decompressing while it reads.
+     * Closing the parser closes the body; if no parser is returned, the body is already closed.
+     * @throws RuntimeException if the status is not 200 or the body cannot be opened
+     */
+    protected JsonParser open(HttpResponse<CompressedBody> response) {
+        CompressedBody body = response.body();
+        boolean opened = false;
+        try {
+            if (response.statusCode() != 200) {
+                throw new RuntimeException(displayName + " HTTP " + response.statusCode() + ": " + body.readString());
+            }
+            JsonParser parser = JSON_FACTORY.createParser(body.open());
+            opened = true;
+            return parser;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!opened) {
+                body.close(); // Also releases the buffers of a stream that was opened
+            }
+        }
+    }
+
+    /**
+     * Map a USD stablecoin quote to USD, for exchanges whose main books are quoted in USD.
+     * Their prices are merged with the stablecoin prices of other sources as they are; the
+     * stablecoin basis is normally far below the spread between exchanges.
+     */
+    protected static String toUsdQuote(String quoteSymbol) {
+        switch (quoteSymbol) {
+            case "USDT":
+            case "USDC":
+                return "USD";
+            default:
+                return quoteSymbol;
+        }
+    }
+
+    /**
+     * Pass the price at the current token to the sink. Unparseable prices are skipped.
+     * @return true if a price was passed
+     */
+    protected static boolean acceptPrice(JsonParser parser, int symbolIndex, PriceSink sink) throws IOException {
+        if (symbolIndex < 0 || parser.getTextLength() == 0) {
+            return false; // Empty for markets without trades
+        }
+        char[] buf = parser.getTextCharacters();
+        int off = parser.getTextOffset();
+        int len = parser.getTextLength();
+        try {
+            long unscaled = FixedPoint.parseUnscaled(buf, off, len);
+            int scale = FixedPoint.parseScale(buf, off, len);
+            sink.accept(symbolIndex, unscaled, scale);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return displayName + " (" + baseUrl + ")";
+    }
+}
@@ -0,0 +1,717 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent, append-only tick store with one memory-mapped segment file per UTC day.
+ * <p>
+ * Each segment starts with a 32 byte header followed by fixed 16 byte records:
+ * symbol id (unsigned short), scale (byte), flags (byte), millis since the start of the day (int)
+ * and the unscaled price (long). Symbol ids are stable across restarts; their names are kept in
+ * an append-only {@code symbols.txt} next to the segments. Every segment has a sparse index of
+ * the highest timestamp seen before every {@value #INDEX_INTERVAL} records, so range reads skip
+ * straight to the first block that can contain a match. The active segment keeps it in memory; it is
+ * written to a {@code .idx} file next to the segment when the segment is closed or compacted.
+ * Closed segments without a matching index are scanned from the start.
+ * <p>
+ * Older segments are compacted in the background to the last tick per symbol and minute, and
+ * segments past the retention period are deleted. Segments mapped by this process are left alone
+ * until the next start, because a mapping cannot be released on demand and keeps the file locked
+ * on Windows.
+ */
+public class TickJournal implements Closeable {
+
+    public static final int RETENTION_DAYS = 30;
+    public static final int COMPACT_AFTER_DAYS = 2;
+
+    static final int MAGIC = 0x43505431; // "CPT1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 16;
+    static final int INDEX_INTERVAL = 256;
+    static final int INDEX_MAGIC = 0x43504931; // "CPI1"
+    static final int INDEX_HEADER_SIZE = 16;
+
+    private static final int FLAG_COMPACTED = 1;
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long COMPACT_BUCKET_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int BUCKETS_PER_DAY = (int) (DAY_MS / COMPACT_BUCKET_MS);
+    private static final int INITIAL_MAPPED_RECORDS = 64 * 1024; // 1 MiB
+    private static final int MAX_SYMBOLS = 0xFFFF;
+    private static final int READ_CHUNK_RECORDS = 4096;
+    private static final String SYMBOLS_FILE = "symbols.txt";
+    private static final String SEGMENT_PREFIX = "ticks-";
+    private static final String SEGMENT_SUFFIX = ".bin";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Header layout
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_FLAGS = 6;
+    private static final int HEADER_DAY_START = 8;
+    private static final int HEADER_COUNT = 16;
+
+    /**
+     * Receives ticks from range reads.
+     */
+    public interface TickConsumer {
+
+        /**
+         * Called once per tick in journal order.
+         * @param symbolId Journal symbol id, see {@link #symbolId(String)}
+         * @param timestamp Epoch milliseconds
+         * @param unscaled Unscaled fixed-point price
+         * @param scale Scale of the price
+         */
+        void accept(int symbolId, long timestamp, long unscaled, int scale);
+    }
+
+    private final Path directory;
+    private final SymbolDictionary symbols;
+    private final BufferedWriter symbolsWriter;
+    private final ExecutorService compactor;
+    private final Set<Long> mappedDays = new HashSet<>(); // Days mapped by this process
+    private Segment active;
+    private boolean closed;
+
+    /**
+     * Open the journal, creating the directory if needed. Compaction of older segments starts
+     * in the background.
+     * @param directory Directory holding the segment files
+     * @throws IOException if the directory or symbol file cannot be opened
+     */
+    public TickJournal(Path directory) throws IOException {
+        this.directory = directory;
+        this.symbols = new SymbolDictionary();
+        Files.createDirectories(directory);
+
+        Path symbolsFile = directory.resolve(SYMBOLS_FILE);
+        if (Files.exists(symbolsFile)) {
+            for (String line : Files.readAllLines(symbolsFile, StandardCharsets.UTF_8)) {
+                symbols.intern(line); // Line number is the symbol id
+            }
+        }
+        this.symbolsWriter = Files.newBufferedWriter(symbolsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "CryptoTickJournal");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        compactor.execute(this::compactOldSegments);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the journal id of a symbol.
+     * @return Symbol id, or -1 if the symbol was never journaled
+     */
+    public int symbolId(String symbol) {
+        return symbols.indexOf(symbol);
+    }
+
+    /**
+     * Get the name of a journal symbol id.
+     */
+    public String symbolName(int symbolId) {
+        return symbols.nameOf(symbolId);
+    }
+
+    /**
+     * Append one tick. Ticks for a day before the active segment are dropped; a tick for a
+     * later day rolls over to a new segment.
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized void append(String symbol, long timestamp, long unscaled, int scale) throws IOException {
+        if (closed) {
+            return;
+        }
+        int symbolId = internSymbol(symbol);
+        if (symbolId < 0) {
+            return;
+        }
+
+        long day = Math.floorDiv(timestamp, DAY_MS);
+        if (active == null || day > active.day) {
+            rollOver(day);
+        } else if (day < active.day) {
+            return;
+        }
+        active.append(symbolId, timestamp, unscaled, scale);
+    }
+
+    /**
+     * Append one tick per price in the table, using each entry's fetch time.
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized void appendAll(PriceTable table) throws IOException {
+        SymbolDictionary dictionary = table.getDictionary();
+        for (int id = 0; id < table.capacity(); id++) {
+            if (table.has(id)) {
+                append(dictionary.nameOf(id), table.getTimestamp(id), table.getUnscaled(id), table.getScale(id));
+            }
+        }
+    }
+
+    /**
+     * Read the ticks of one symbol in a time range, in journal order.
+     * @param symbol Symbol name
+     * @param fromMillis Epoch milliseconds, inclusive
+     * @param toMillis Epoch milliseconds, exclusive
+     * @param consumer Receiver for matching ticks
+     * @return Number of ticks passed to the consumer, 0 if the symbol was never journaled
+     * @throws IOException if a segment cannot be read
+     */
+    public int read(String symbol, long fromMillis, long toMillis, TickConsumer consumer) throws IOException {
+        int symbolId = symbolId(symbol);
+        return symbolId < 0 ? 0 : read(symbolId, fromMillis, toMillis, consumer);
+    }
+
+    /**
+     * Read the ticks of a time range in journal order.
+     * @param symbolId Journal symbol id, or -1 for all symbols
+     * @param fromMillis Epoch milliseconds, inclusive
+     * @param toMillis Epoch milliseconds, exclusive
+     * @param consumer Receiver for matching ticks
+     * @return Number of ticks passed to the consumer
+     * @throws IOException if a segment cannot be read
+     */
+    public int read(int symbolId, long fromMillis, long toMillis, TickConsumer consumer) throws IOException {
+        if (fromMillis >= toMillis) {
+            return 0;
+        }
+
+        int count = 0;
+        long lastDay = Math.floorDiv(toMillis - 1, DAY_MS);
+        for (long day = Math.floorDiv(fromMillis, DAY_MS); day <= lastDay; day++) {
+            synchronized (this) {
+                if (active != null && active.day == day) {
+                    count += active.read(symbolId, fromMillis, toMillis, consumer);
+                    continue;
+                }
+            }
+            Path segment = segmentPath(day);
+            if (Files.exists(segment)) {
+                count += readClosedSegment(segment, symbolId, fromMillis, toMillis, consumer);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Flush the active segment and stop background compaction.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        compactor.shutdownNow();
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+        symbolsWriter.close();
+    }
+
+    private int internSymbol(String symbol) throws IOException {
+        int id = symbols.indexOf(symbol);
+        if (id >= 0) {
+            return id;
+        }
+        if (symbols.size() >= MAX_SYMBOLS) {
+            return -1;
+        }
+        id = symbols.intern(symbol);
+        symbolsWriter.write(symbol);
+        symbolsWriter.newLine();
+        symbolsWriter.flush();
+        return id;
+    }
+
+    private void rollOver(long day) throws IOException {
+        if (active != null) {
+            active.close();
+            compactor.execute(this::compactOldSegments);
+        }
+        Path path = segmentPath(day);
+        active = Segment.open(path, indexPath(path), day);
+        mappedDays.add(day);
+    }
+
+    private Path segmentPath(long day) {
+        return directory.resolve(SEGMENT_PREFIX + LocalDate.ofEpochDay(day) + SEGMENT_SUFFIX);
+    }
+
+    static Path indexPath(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    private static Path tempPath(Path file) {
+        return file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Read a segment that is not mapped, in chunks through the file channel, starting at the
+     * first block its persisted index allows.
+     */
+    private static int readClosedSegment(Path path, int symbolId, long fromMillis, long toMillis,
+                                         TickConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (!readHeader(channel, header)) {
+                return 0;
+            }
+            long dayStart = header.getLong(HEADER_DAY_START);
+            long records = header.getLong(HEADER_COUNT);
+            BlockIndex index = BlockIndex.read(indexPath(path), records);
+
+            int count = 0;
+            ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK_RECORDS * RECORD_SIZE);
+            long position = HEADER_SIZE + (index != null ? (long) index.firstRecord(fromMillis) * RECORD_SIZE : 0);
+            long end = HEADER_SIZE + records * RECORD_SIZE;
+            while (position < end) {
+                chunk.clear();
+                chunk.limit((int) Math.min(chunk.capacity(), end - position));
+                int read = channel.read(chunk, position);
+                if (read <= 0) {
+                    break;
+                }
+                int complete = read - read % RECORD_SIZE;
+                for (int offset = 0; offset < complete; offset += RECORD_SIZE) {
+                    count += visit(chunk, offset, dayStart, symbolId, fromMillis, toMillis, consumer);
+                }
+                position += complete;
+            }
+            return count;
+        }
+    }
+
+    private static boolean readHeader(FileChannel channel, ByteBuffer header) throws IOException {
+        header.clear();
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return false;
+            }
+        }
+        return header.getInt(HEADER_MAGIC) == MAGIC && header.getShort(HEADER_VERSION) == VERSION;
+    }
+
+    /**
+     * Read whole records into the chunk, from its start.
+     * @throws IOException if the segment ends before the records
+     */
+    private static void readRecords(FileChannel channel, ByteBuffer chunk, int firstRecord, int records) throws IOException {
+        chunk.clear();
+        chunk.limit(records * RECORD_SIZE);
+        long position = HEADER_SIZE + (long) firstRecord * RECORD_SIZE;
+        while (chunk.hasRemaining()) {
+            if (channel.read(chunk, position + chunk.position()) < 0) {
+                throw new IOException("Tick journal segment is truncated");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Pass a record to the consumer if it matches.
+     * @return 1 if the record was passed, otherwise 0
+     */
+    private static int visit(ByteBuffer buffer, int offset, long dayStart, int symbolId,
+                             long fromMillis, long toMillis, TickConsumer consumer) {
+        int recordSymbol = Short.toUnsignedInt(buffer.getShort(offset));
+        if (symbolId >= 0 && recordSymbol != symbolId) {
+            return 0;
+        }
+        long timestamp = dayStart + buffer.getInt(offset + 4);
+        if (timestamp < fromMillis || timestamp >= toMillis) {
+            return 0;
+        }
+        consumer.accept(recordSymbol, timestamp, buffer.getLong(offset + 8), buffer.get(offset + 2));
+        return 1;
+    }
+
+    /**
+     * Compact segments older than {@link #COMPACT_AFTER_DAYS} and delete segments older than
+     * {@link #RETENTION_DAYS}, skipping segments mapped by this process. Runs on the background thread.
+     * A segment that cannot be rewritten or deleted is left as it was and retried by the next pass.
+     */
+    private void compactOldSegments() {
+        long today = Math.floorDiv(System.currentTimeMillis(), DAY_MS);
+        Set<Long> skipped;
+        synchronized (this) {
+            skipped = new HashSet<>(mappedDays);
+        }
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : segments) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                long day = dayOf(segment);
+                if (day < 0 || skipped.contains(day)) {
+                    continue; // A mapped file cannot be replaced or deleted everywhere
+                }
+                try {
+                    if (today - day > RETENTION_DAYS) {
+                        Files.deleteIfExists(segment);
+                        Files.deleteIfExists(indexPath(segment));
+                    } else if (today - day >= COMPACT_AFTER_DAYS) {
+                        compact(segment);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Tick journal segment " + segment.getFileName() + " kept for the next pass: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error listing tick journal segments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrite a closed segment keeping only the last tick per symbol and minute, and write its index.
+     * The segment is streamed in chunks: one backward pass marks the records to keep, one forward
+     * pass copies them.
+     */
+    static void compact(Path segment) throws IOException {
+        Path temp = tempPath(segment);
+        BlockIndex index = new BlockIndex();
+        try {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                if (!readHeader(in, header) || (header.getShort(HEADER_FLAGS) & FLAG_COMPACTED) != 0) {
+                    return;
+                }
+                long dayStart = header.getLong(HEADER_DAY_START);
+                int total = (int) Math.min(header.getLong(HEADER_COUNT), (in.size() - HEADER_SIZE) / RECORD_SIZE);
+                ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK_RECORDS * RECORD_SIZE);
+
+                // Walk backwards so the first record seen per symbol and minute is the last one written
+                BitSet seen = new BitSet(); // Bit per symbol id and minute of the day
+                BitSet keep = new BitSet(total);
+                for (int end = total; end > 0; ) {
+                    int start = Math.max(0, end - READ_CHUNK_RECORDS);
+                    readRecords(in, chunk, start, end - start);
+                    for (int i = end - start - 1; i >= 0; i--) {
+                        int offset = i * RECORD_SIZE;
+                        int millis = chunk.getInt(offset + 4);
+                        if (millis < 0 || millis >= DAY_MS) {
+                            continue; // Not written by append, the record is dropped
+                        }
+                        int key = Short.toUnsignedInt(chunk.getShort(offset)) * BUCKETS_PER_DAY
+                                + (int) (millis / COMPACT_BUCKET_MS);
+                        if (!seen.get(key)) {
+                            seen.set(key);
+                            keep.set(start + i);
+                        }
+                    }
+                    end = start;
+                }
+
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer outHeader = ByteBuffer.allocate(HEADER_SIZE);
+                    writeHeader(outHeader, dayStart, FLAG_COMPACTED, keep.cardinality());
+                    writeFully(out, outHeader);
+
+                    ByteBuffer kept = ByteBuffer.allocate(READ_CHUNK_RECORDS * RECORD_SIZE);
+                    for (int start = 0; start < total; start += READ_CHUNK_RECORDS) {
+                        int end = Math.min(total, start + READ_CHUNK_RECORDS);
+                        readRecords(in, chunk, start, end - start);
+                        kept.clear();
+                        for (int i = keep.nextSetBit(start); i >= 0 && i < end; i = keep.nextSetBit(i + 1)) {
+                            int offset = (i - start) * RECORD_SIZE;
+                            index.add(dayStart + chunk.getInt(offset + 4));
+                            kept.put(chunk.array(), offset, RECORD_SIZE);
+                        }
+                        kept.flip();
+                        writeFully(out, kept);
+                    }
+                    out.force(true);
+                }
+            }
+            // Until the new index is written the old one may not match and reads scan the segment
+            Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index.write(indexPath(segment));
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static long dayOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return LocalDate.parse(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))
+                    .toEpochDay();
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private static void writeHeader(ByteBuffer buffer, long dayStart, int flags, long count) {
+        buffer.putInt(HEADER_MAGIC, MAGIC);
+        buffer.putShort(HEADER_VERSION, (short) VERSION);
+        buffer.putShort(HEADER_FLAGS, (short) flags);
+        buffer.putLong(HEADER_DAY_START, dayStart);
+        buffer.putLong(HEADER_COUNT, count);
+    }
+
+    /**
+     * Highest timestamp written before each block of {@value #INDEX_INTERVAL} records of a segment.
+     * Watermarks only grow, so a binary search finds the first block that can hold a timestamp.
+     * <p>
+     * Index file layout: magic (int), version (int), number of indexed records (long), then one
+     * watermark (long) per block.
+     */
+    static final class BlockIndex {
+
+        private long[] watermarks;
+        private int records;
+        private long maxTimestamp = Long.MIN_VALUE;
+
+        BlockIndex() {
+            this(new long[16], 0);
+        }
+
+        private BlockIndex(long[] watermarks, int records) {
+            this.watermarks = watermarks;
+            this.records = records;
+        }
+
+        /**
+         * Index the next record.
+         */
+        void add(long timestamp) {
+            if (records % INDEX_INTERVAL == 0) {
+                int block = records / INDEX_INTERVAL;
+                if (block >= watermarks.length) {
+                    long[] grown = new long[watermarks.length * 2];
+                    System.arraycopy(watermarks, 0, grown, 0, watermarks.length);
+                    watermarks = grown;
+                }
+                watermarks[block] = maxTimestamp;
+            }
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            records++;
+        }
+
+        int size() {
+            return records;
+        }
+
+        /**
+         * Get the first record that can have a timestamp at or after {@code fromMillis}.
+         */
+        int firstRecord(long fromMillis) {
+            // Every record at or after fromMillis lies at or after the first block whose watermark reaches it
+            int low = 0;
+            int high = blockCount(records);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (watermarks[mid] < fromMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return Math.max(0, low - 1) * INDEX_INTERVAL;
+        }
+
+        /**
+         * Write the index through a temporary file, so readers never see a partial index.
+         */
+        void write(Path path) throws IOException {
+            int blocks = blockCount(records);
+            ByteBuffer buffer = ByteBuffer.allocate(INDEX_HEADER_SIZE + blocks * Long.BYTES);
+            buffer.putInt(INDEX_MAGIC).putInt(VERSION).putLong(records);
+            for (int i = 0; i < blocks; i++) {
+                buffer.putLong(watermarks[i]);
+            }
+            buffer.flip();
+
+            Path temp = tempPath(path);
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    writeFully(channel, buffer);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+
+        /**
+         * Read a persisted index.
+         * @param records Number of records in the segment
+         * @return Index, or null if it is missing, unreadable or does not cover exactly these records
+         */
+        static BlockIndex read(Path path, long records) {
+            try {
+                if (!Files.exists(path)) {
+                    return null;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+                if (buffer.remaining() < INDEX_HEADER_SIZE || buffer.getInt() != INDEX_MAGIC
+                        || buffer.getInt() != VERSION || buffer.getLong() != records
+                        || buffer.remaining() != blockCount(records) * Long.BYTES) {
+                    return null;
+                }
+                long[] watermarks = new long[buffer.remaining() / Long.BYTES];
+                buffer.asLongBuffer().get(watermarks);
+                return new BlockIndex(watermarks, (int) records);
+            } catch (IOException e) {
+                return null; // Only an optimization, the segment is scanned instead
+            }
+        }
+
+        private static int blockCount(long records) {
+            return (int) ((records + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+        }
+    }
+
+    /**
+     * The memory-mapped segment of the current day. Guarded by the journal's lock.
+     */
+    private static final class Segment {
+
+        private final long day;
+        private final long dayStart;
+        private final FileChannel channel;
+        private final Path indexPath;
+        private final BlockIndex index = new BlockIndex();
+        private MappedByteBuffer buffer; // Null once closed
+        private int count;
+
+        private Segment(long day, FileChannel channel, Path indexPath) {
+            this.day = day;
+            this.dayStart = day * DAY_MS;
+            this.channel = channel;
+            this.indexPath = indexPath;
+        }
+
+        static Segment open(Path path, Path indexPath, long day) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(day, channel, indexPath);
+            try {
+                segment.load();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return segment;
+        }
+
+        /**
+         * Map the file, writing a header for a new segment or rebuilding the index of an existing one.
+         */
+        private void load() throws IOException {
+            long existing = channel.size();
+            long records = 0;
+            if (existing >= HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                if (!readHeader(channel, header) || (header.getShort(HEADER_FLAGS) & FLAG_COMPACTED) != 0) {
+                    throw new IOException("Not an active tick journal segment");
+                }
+                records = Math.min(header.getLong(HEADER_COUNT), (existing - HEADER_SIZE) / RECORD_SIZE);
+            }
+
+            map(Math.max(existing, HEADER_SIZE + Math.max(INITIAL_MAPPED_RECORDS, records) * RECORD_SIZE));
+            if (records == 0) {
+                writeHeader(buffer, dayStart, 0, 0);
+            }
+            for (int i = 0; i < records; i++) {
+                index.add(dayStart + buffer.getInt(recordOffset(i) + 4));
+            }
+            count = (int) records;
+        }
+
+        void append(int symbolId, long timestamp, long unscaled, int scale) throws IOException {
+            int offset = recordOffset(count);
+            if (offset + RECORD_SIZE > buffer.capacity()) {
+                map((long) buffer.capacity() * 2);
+            }
+            buffer.putShort(offset, (short) symbolId);
+            buffer.put(offset + 2, (byte) scale);
+            buffer.put(offset + 3, (byte) 0);
+            buffer.putInt(offset + 4, (int) (timestamp - dayStart));
+            buffer.putLong(offset + 8, unscaled);
+            index.add(timestamp);
+            count++;
+            buffer.putLong(HEADER_COUNT, count); // Publish the record after it is complete
+        }
+
+        int read(int symbolId, long fromMillis, long toMillis, TickConsumer consumer) {
+            int matched = 0;
+            for (int i = index.firstRecord(fromMillis); i < count; i++) {
+                matched += visit(buffer, recordOffset(i), dayStart, symbolId, fromMillis, toMillis, consumer);
+            }
+            return matched;
+        }
+
+        /**
+         * Flush the records, persist the index and drop the mapping, which is released once
+         * the buffer is collected.
+         */
+        void close() throws IOException {
+            try {
+                buffer.force();
+                index.write(indexPath);
+            } catch (IOException e) {
+                // Reads of this day scan the whole segment instead
+                System.err.println("Error writing tick journal index " + indexPath.getFileName() + ": " + e.getMessage());
+            } finally {
+                buffer = null;
+                channel.close();
+            }
+        }
+
+        private void map(long size) throws IOException {
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Tick journal segment too large");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        private static int recordOffset(int record) {
+            return HEADER_SIZE + record * RECORD_SIZE;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.defimore.crypto.ui;
+
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import com.defimore.crypto.util.FixedPointFormatter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the status bar line "SYM: price | SYM: price" from a price table.
+ * Every symbol keeps a cached segment with its label and formatted price, which is only rebuilt
+ * when the price or the fraction digits change. The line is assembled in a reusable buffer and the
+ * previous String is returned when nothing changed, so steady-state renders do not allocate.
+ * Not thread-safe. The shared {@link PriceRenderModel} calls it from the price and config
+ * listener threads, always while holding its lock, so calls never overlap.
+ */
+public class PriceLineRenderer {
+
+    private static final char[] SEPARATOR = " | ".toCharArray();
+
+    private final Map<String, Segment> segments = new HashMap<>();
+    private FixedPointFormatter formatter;
+    private List<String> lastSymbols;
+    private char[] line = new char[256];
+    private String lastLine;
+
+    /**
+     * Render the line for the given symbols.
+     * @param symbols Symbols in display order
+     * @param table Prices to show
+     * @param fractionDigits Maximum fraction digits
+     * @param prefix Text before the first segment
+     * @param suffix Text after the last segment
+     * @return Rendered line, or null if none of the symbols has a price
+     */
+    public String render(List<String> symbols, PriceTable table, int fractionDigits, String prefix, String suffix) {
+        if (formatter == null || formatter.getFractionDigits() != fractionDigits) {
+            formatter = new FixedPointFormatter(fractionDigits, false);
+            segments.clear();
+        }
+        if (symbols != lastSymbols) {
+            segments.keySet().retainAll(symbols); // Drop segments of removed symbols
+            lastSymbols = symbols;
+        }
+
+        SymbolDictionary dictionary = table.getDictionary();
+        int pos = append(prefix, 0);
+        int start = pos;
+        for (int i = 0; i < symbols.size(); i++) {
+            String symbol = symbols.get(i);
+            int id = dictionary.indexOf(symbol);
+            if (id < 0 || !table.has(id)) {
+                continue;
+            }
+
+            Segment segment = segments.get(symbol);
+            if (segment == null) {
+                segment = new Segment(symbol);
+                segments.put(symbol, segment);
+            }
+            segment.update(formatter, table.getUnscaled(id), table.getScale(id));
+
+            if (pos > start) {
+                pos = append(SEPARATOR, SEPARATOR.length, pos);
+            }
+            pos = append(segment.chars, segment.length, pos);
+        }
+        if (pos == start) {
+            return null;
+        }
+        pos = append(suffix, pos);
+
+        if (!sameAsLast(pos)) {
+            lastLine = new String(line, 0, pos);
+        }
+        return lastLine;
+    }
+
+    /**
+     * Forget all cached segments, e.g. after the display settings changed.
+     */
+    public void clear() {
+        segments.clear();
+        lastSymbols = null;
+        lastLine = null;
+    }
+
+    private boolean sameAsLast(int length) {
+        String last = lastLine;
+        if (last == null || last.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (last.charAt(i) != line[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int append(String text, int pos) {
+        ensureCapacity(pos + text.length());
+        text.getChars(0, text.length(), line, pos);
+        return pos + text.length();
+    }
+
+    private int append(char[] chars, int length, int pos) {
+        ensureCapacity(pos + length);
+        System.arraycopy(chars, 0, line, pos, length);
+        return pos + length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > line.length) {
+            char[] grown = new char[Math.max(capacity, line.length * 2)];
+            System.arraycopy(line, 0, grown, 0, line.length);
+            line = grown;
+        }
+    }
+
+    /**
+     * Cached "SYM: price" text of one symbol.
+     */
+    private static final class Segment {
+        private final int labelLength;
+        private final char[] chars;
+        private int length;
+        private long unscaled;
+        private int scale = -1; // No price formatted yet
+
+        Segment(String symbol) {
+            String label = symbol + ": ";
+            labelLength = label.length();
+            chars = new char[labelLength + FixedPointFormatter.MAX_CHARS];
+            label.getChars(0, labelLength, chars, 0);
+        }
+
+        void update(FixedPointFormatter formatter, long unscaled, int scale) {
+            if (this.unscaled == unscaled && this.scale == scale) {
+                return;
+            }
+            this.unscaled = unscaled;
+            this.scale = scale;
+            length = formatter.format(unscaled, scale, chars, labelLength);
+        }
+    }
+}
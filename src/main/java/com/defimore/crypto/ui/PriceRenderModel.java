@@ -0,0 +1,262 @@
+package com.defimore.crypto.ui;
+
+import com.defimore.crypto.model.CryptoPluginConfig;
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.service.ConfigChangeListener;
+import com.defimore.crypto.service.ConfigurationService;
+import com.defimore.crypto.service.ConfigurationServiceFactory;
+import com.defimore.crypto.service.PriceHub;
+import com.defimore.crypto.service.PriceService;
+import com.defimore.crypto.service.PriceUpdateListener;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Application-level render model shared by the widgets of all project frames.
+ * It listens to the price feed and the configuration once, renders the text once per update and
+ * publishes an immutable {@link RenderedPrices}. Widgets only get a callback to schedule a repaint,
+ * so the UI cost per update does not grow with the number of open windows.
+ * <p>
+ * The model holds one subscription to the {@link PriceHub} while at least one widget is subscribed.
+ */
+@Service
+public final class PriceRenderModel implements PriceUpdateListener, ConfigChangeListener, Disposable {
+
+    private final Object lock = new Object();
+    private final List<Runnable> renderListeners = new CopyOnWriteArrayList<>();
+    private final PriceLineRenderer lineRenderer = new PriceLineRenderer(); // Guarded by lock
+    private volatile RenderedPrices current = RenderedPrices.LOADING;
+    private volatile PriceService priceService; // Set once the hub has started
+    private ConfigurationService configService;
+    private Disposable hubSubscription;
+    private boolean attachPending;
+    private int subscriberCount;
+
+    // Render state, guarded by lock
+    private PriceTable displayedTable; // Null until prices are known
+    private String statusMessage; // Shown when no price can be displayed
+    private boolean isOnline = false;
+    private boolean hasError = false;
+    private boolean isDisposed = false;
+
+    /**
+     * Get the application-wide render model.
+     */
+    public static PriceRenderModel getInstance() {
+        return ApplicationManager.getApplication().getService(PriceRenderModel.class);
+    }
+
+    /**
+     * Get the last rendered result. Never null.
+     */
+    public RenderedPrices getCurrent() {
+        return current;
+    }
+
+    /**
+     * Get the shared price service, or null while the hub has not started.
+     */
+    public PriceService getPriceService() {
+        return priceService;
+    }
+
+    /**
+     * Subscribe a widget. The callback runs on the rendering thread after every new result and
+     * should only schedule a repaint.
+     * @param onRendered Callback for new results
+     * @return Subscription that detaches the callback when disposed
+     */
+    public Disposable subscribe(Runnable onRendered) {
+        renderListeners.add(onRendered);
+
+        boolean attach = false;
+        synchronized (lock) {
+            subscriberCount++;
+            if (hubSubscription == null && !attachPending) {
+                attachPending = true;
+                attach = true;
+            }
+        }
+        if (attach) {
+            PriceHub.getInstance().whenReady(this::attach);
+        }
+
+        AtomicBoolean disposed = new AtomicBoolean();
+        return () -> {
+            if (disposed.compareAndSet(false, true)) {
+                unsubscribe(onRendered);
+            }
+        };
+    }
+
+    /**
+     * Attach to the started services: render the last known prices and subscribe to the shared
+     * price feed. Runs off the EDT.
+     */
+    private void attach(PriceService service) {
+        synchronized (lock) {
+            attachPending = false;
+            if (isDisposed || subscriberCount == 0 || hubSubscription != null) {
+                return;
+            }
+            if (priceService == null) {
+                priceService = service;
+                configService = ConfigurationServiceFactory.getInstance();
+                configService.addConfigChangeListener(this);
+            }
+
+            // Show the last known prices right away; they are marked as cached until the first fetch
+            PriceTable cachedTable = service.getPriceTable();
+            if (cachedTable.size() > 0) {
+                displayedTable = cachedTable;
+            }
+            if (configService.getConfig().getSymbols().isEmpty()) {
+                statusMessage = "₿ No symbols configured";
+            }
+            render();
+        }
+        notifyRendered();
+
+        // Attach to the shared price feed, which starts updates for the first subscriber
+        Disposable subscription = PriceHub.getInstance().subscribe(this);
+        synchronized (lock) {
+            if (!isDisposed && subscriberCount > 0 && hubSubscription == null) {
+                hubSubscription = subscription;
+                return;
+            }
+        }
+        subscription.dispose();
+    }
+
+    private void unsubscribe(Runnable onRendered) {
+        renderListeners.remove(onRendered);
+
+        Disposable subscription = null;
+        synchronized (lock) {
+            subscriberCount--;
+            if (subscriberCount == 0) {
+                subscription = hubSubscription;
+                hubSubscription = null;
+            }
+        }
+        if (subscription != null) {
+            subscription.dispose(); // Stops updates when this was the last window
+        }
+    }
+
+    @Override
+    public void onPricesUpdated(Map<String, BigDecimal> prices, boolean isOnline) {
+        synchronized (lock) {
+            this.isOnline = isOnline;
+            this.hasError = false;
+            this.statusMessage = null;
+            this.displayedTable = priceService.getPriceTable();
+            render();
+        }
+        notifyRendered();
+    }
+
+    @Override
+    public void onPriceUpdateFailed(Exception error) {
+        synchronized (lock) {
+            // Keep showing cached prices if there are any
+            this.isOnline = false;
+            this.hasError = true;
+            this.statusMessage = "₿ Connection Error";
+            this.displayedTable = priceService.getPriceTable();
+            render();
+        }
+        notifyRendered();
+    }
+
+    /**
+     * Re-render from the cache. Prices of added symbols are fetched by the price service and
+     * arrive through the price listener.
+     */
+    @Override
+    public void onConfigChanged(CryptoPluginConfig oldConfig, CryptoPluginConfig newConfig) {
+        synchronized (lock) {
+            PriceTable cachedTable = priceService.getPriceTable();
+            if (cachedTable.size() > 0) {
+                displayedTable = cachedTable;
+            }
+            statusMessage = newConfig.getSymbols().isEmpty() ? "₿ No symbols configured" : null;
+            render();
+        }
+        notifyRendered();
+    }
+
+    /**
+     * Render the current state into a new result. Must hold the lock.
+     */
+    private void render() {
+        if (isDisposed) {
+            return;
+        }
+        String status = hasError ? RenderedPrices.STATUS_ERROR
+                : (isOnline ? RenderedPrices.STATUS_LIVE : RenderedPrices.STATUS_CACHED);
+        String text = renderText();
+        current = new RenderedPrices(text != null ? text : current.getText(), status);
+    }
+
+    /**
+     * Build the display text from the current state.
+     * @return Text to show, or null to keep the current text
+     */
+    private String renderText() {
+        PriceTable table = displayedTable;
+        String message = statusMessage;
+        if (table == null || configService == null) {
+            return message;
+        }
+
+        CryptoPluginConfig config = configService.getConfig();
+        if (table.size() == 0) {
+            return message != null ? message : "No Data";
+        }
+
+        // Only segments whose price changed are formatted again
+        String text = lineRenderer.render(config.getSymbols(), table, config.getFractionDigits(),
+                "₿ ", !isOnline && !hasError ? " (Cached)" : "");
+        if (text == null) {
+            return message != null ? message : "₿ No Data";
+        }
+        return text;
+    }
+
+    private void notifyRendered() {
+        for (Runnable listener : renderListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                System.err.println("Error notifying render listener: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        Disposable subscription;
+        ConfigurationService config;
+        synchronized (lock) {
+            isDisposed = true;
+            subscription = hubSubscription;
+            hubSubscription = null;
+            config = configService;
+        }
+        renderListeners.clear();
+        if (config != null) {
+            config.removeConfigChangeListener(this);
+        }
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.defimore.crypto.ui;
+
+import java.util.Objects;
+
+/**
+ * Immutable result of rendering the prices once for all widgets.
+ */
+public final class RenderedPrices {
+
+    public static final String STATUS_LIVE = "Live";
+    public static final String STATUS_CACHED = "Cached";
+    public static final String STATUS_ERROR = "Error";
+
+    static final RenderedPrices LOADING = new RenderedPrices("₿ Loading...", STATUS_CACHED);
+
+    private final String text;
+    private final String tooltip;
+    private final String status;
+
+    RenderedPrices(String text, String status) {
+        this.text = text;
+        this.tooltip = "Crypto prices (" + status + ")";
+        this.status = status;
+    }
+
+    /**
+     * Get the status bar text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    public String getTooltip() {
+        return tooltip;
+    }
+
+    /**
+     * Get the connection status: {@link #STATUS_LIVE}, {@link #STATUS_CACHED} or {@link #STATUS_ERROR}.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Results are equal when they show the same text and status; the tooltip follows the status.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RenderedPrices that = (RenderedPrices) o;
+        return text.equals(that.text) && status.equals(that.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, status);
+    }
+
+    @Override
+    public String toString() {
+        return "RenderedPrices{" +
+                "text='" + text + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,104 @@
+package com.defimore.crypto.ui;
+
+import com.intellij.openapi.application.ApplicationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces repaint requests of one widget into at most one queued EDT task.
+ * Requests from any thread only set a flag; the EDT task renders the current state once, compares
+ * the result against the last rendered one with {@code equals} and skips the repaint when nothing
+ * visible changed. The result must therefore cover everything the widget shows, e.g. the text and
+ * the status behind the tooltip. EDT time spent by all pipelines is tracked for diagnostics.
+ * @param <T> Rendered result
+ */
+public class RepaintPipeline<T> {
+
+    private static final AtomicLong totalEdtNanos = new AtomicLong();
+    private static final AtomicLong totalRepaints = new AtomicLong();
+    private static final AtomicLong totalSkipped = new AtomicLong();
+    private static final AtomicLong totalCoalesced = new AtomicLong();
+
+    private final Supplier<T> renderer;
+    private final Consumer<T> painter;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private T lastRendered; // EDT only
+
+    /**
+     * @param renderer Builds the result from the current state, or null to skip; called on the EDT
+     * @param painter Shows a changed result; called on the EDT
+     */
+    public RepaintPipeline(Supplier<T> renderer, Consumer<T> painter) {
+        this.renderer = renderer;
+        this.painter = painter;
+    }
+
+    /**
+     * Request a repaint. Cheap and safe to call from any thread; requests made while a task is
+     * queued are merged into it.
+     */
+    public void request() {
+        if (scheduled.compareAndSet(false, true)) {
+            ApplicationManager.getApplication().invokeLater(this::run);
+        } else {
+            totalCoalesced.incrementAndGet();
+        }
+    }
+
+    private void run() {
+        scheduled.set(false); // Requests from now on need a new task
+        long startTime = System.nanoTime();
+        try {
+            T rendered = renderer.get();
+            if (rendered == null || rendered.equals(lastRendered)) {
+                totalSkipped.incrementAndGet();
+                return;
+            }
+            lastRendered = rendered;
+            painter.accept(rendered);
+            totalRepaints.incrementAndGet();
+        } catch (Exception e) {
+            System.err.println("Error repainting crypto price widget: " + e.getMessage());
+        } finally {
+            totalEdtNanos.addAndGet(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Get the EDT time used by all pipelines.
+     */
+    public static long getTotalEdtNanos() {
+        return totalEdtNanos.get();
+    }
+
+    public static long getTotalRepaints() {
+        return totalRepaints.get();
+    }
+
+    /**
+     * Get the number of EDT tasks that found the result unchanged.
+     */
+    public static long getTotalSkipped() {
+        return totalSkipped.get();
+    }
+
+    /**
+     * Get the number of requests merged into an already queued task.
+     */
+    public static long getTotalCoalesced() {
+        return totalCoalesced.get();
+    }
+
+    /**
+     * Get a one-line summary of the EDT usage.
+     */
+    public static String getSummary() {
+        return String.format("EDT: %.1f ms, %d repaints, %d skipped, %d coalesced",
+                totalEdtNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                totalRepaints.get(), totalSkipped.get(), totalCoalesced.get());
+    }
+}
@@ -1,11 +1,15 @@
 package com.defimore.crypto.ui;
 
 import com.defimore.crypto.model.CryptoPluginConfig;
+import com.defimore.crypto.model.TickHistory;
+import com.defimore.crypto.service.ExchangeProvider;
 import com.intellij.ui.components.JBTextField;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Simplified configuration panel for testing.
@@ -16,6 +20,10 @@ public class SimpleCryptoConfigPanel extends JPanel {
     private JBTextField stableSymbolField;
     private JSpinner refreshIntervalSpinner;
     private JSpinner fractionDigitsSpinner;
+    private JSpinner historyCapacitySpinner;
+    private JCheckBox streamingCheckBox;
+    private JCheckBox fullMarketCheckBox;
+    private JBTextField priceSourcesField;
     
     private CryptoPluginConfig currentConfig;
     
@@ -35,6 +43,14 @@ public class SimpleCryptoConfigPanel extends JPanel {
         
         refreshIntervalSpinner = new JSpinner(new SpinnerNumberModel(60, 1, 3600, 1));
         fractionDigitsSpinner = new JSpinner(new SpinnerNumberModel(3, 0, 8, 1));
+        historyCapacitySpinner = new JSpinner(new SpinnerNumberModel(
+                CryptoPluginConfig.DEFAULT_HISTORY_CAPACITY, TickHistory.MIN_CAPACITY, TickHistory.MAX_CAPACITY, 100));
+        streamingCheckBox = new JCheckBox("Live streaming (WebSocket)");
+        fullMarketCheckBox = new JCheckBox("Full-market snapshot (all pairs in one request)");
+        priceSourcesField = new JBTextField();
+        priceSourcesField.setText(CryptoPluginConfig.BINANCE_SOURCE);
+        priceSourcesField.setToolTipText("Comma-separated: " + String.join(", ", getAvailablePriceSources())
+                + ". The median of all sources is shown.");
         // No display options needed - always show in status bar without icon
     }
     
@@ -82,6 +98,29 @@ public class SimpleCryptoConfigPanel extends JPanel {
         digitsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         add(digitsPanel);
         
+        // History Capacity
+        JPanel historyPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        historyPanel.add(new JLabel("Price History (ticks per symbol):"));
+        historyCapacitySpinner.setPreferredSize(new Dimension(80, 25));
+        historyPanel.add(historyCapacitySpinner);
+        historyPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        add(historyPanel);
+        
+        // Streaming
+        JPanel streamingPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        streamingPanel.add(streamingCheckBox);
+        streamingPanel.add(fullMarketCheckBox);
+        streamingPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        add(streamingPanel);
+        
+        // Price Sources
+        JPanel sourcesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        sourcesPanel.add(new JLabel("Price Sources:"));
+        priceSourcesField.setPreferredSize(new Dimension(200, 25));
+        sourcesPanel.add(priceSourcesField);
+        sourcesPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        add(sourcesPanel);
+        
         // Filler
         add(Box.createVerticalGlue());
     }
@@ -95,6 +134,10 @@ public class SimpleCryptoConfigPanel extends JPanel {
         stableSymbolField.setText(config.getStableSymbol());
         refreshIntervalSpinner.setValue(config.getRefreshInterval() / 1000);
         fractionDigitsSpinner.setValue(config.getFractionDigits());
+        historyCapacitySpinner.setValue(config.getHistoryCapacity());
+        streamingCheckBox.setSelected(config.isStreamingEnabled());
+        fullMarketCheckBox.setSelected(config.isFullMarketSnapshot());
+        priceSourcesField.setText(String.join(",", config.getPriceSources()));
     }
     
     public CryptoPluginConfig saveConfig() {
@@ -108,12 +151,47 @@ public class SimpleCryptoConfigPanel extends JPanel {
         config.setStableSymbol(stableSymbolField.getText().trim());
         config.setRefreshInterval((Integer) refreshIntervalSpinner.getValue() * 1000);
         config.setFractionDigits((Integer) fractionDigitsSpinner.getValue());
+        config.setHistoryCapacity((Integer) historyCapacitySpinner.getValue());
+        config.setStreamingEnabled(streamingCheckBox.isSelected());
+        config.setFullMarketSnapshot(fullMarketCheckBox.isSelected());
+        
+        String sourcesText = priceSourcesField.getText().trim().toLowerCase();
+        if (!sourcesText.isEmpty()) {
+            config.setPriceSources(Arrays.asList(sourcesText.split("\\s*,\\s*")));
+        }
         config.setShowIcon(false); // Always false for simplicity
         config.setShowInStatusBar(true); // Always true for simplicity
         
         return config;
     }
     
+    /**
+     * Get the ids of the built-in source and of all installed exchange providers.
+     */
+    public static List<String> getAvailablePriceSources() {
+        List<String> sources = new ArrayList<>();
+        sources.add(CryptoPluginConfig.BINANCE_SOURCE);
+        for (ExchangeProvider provider : ExchangeProvider.EP_NAME.getExtensionList()) {
+            sources.add(provider.getId().toLowerCase());
+        }
+        return sources;
+    }
+    
+    /**
+     * Get the entered price sources that no installed provider serves.
+     * @return Unknown ids in entered order, empty if all are known
+     */
+    public List<String> getUnknownPriceSources() {
+        List<String> available = getAvailablePriceSources();
+        List<String> unknown = new ArrayList<>();
+        for (String source : saveConfig().getPriceSources()) {
+            if (!available.contains(source)) {
+                unknown.add(source);
+            }
+        }
+        return unknown;
+    }
+    
     public boolean isModified() {
         if (currentConfig == null) {
             return true;
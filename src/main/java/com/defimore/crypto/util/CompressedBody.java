@@ -0,0 +1,332 @@
+package com.defimore.crypto.util;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Response body as received on the wire, possibly gzip or deflate compressed.
+ * <p>
+ * The body handler keeps the network buffers as they arrive instead of joining them into one array.
+ * {@link #open()} decompresses from those buffers while the decoder reads, so the uncompressed
+ * payload is never held in memory. The body is only read after it was fully received, so decoding
+ * never blocks a thread on the network.
+ * <p>
+ * Closing the body records its wire and decoded sizes in the {@link TransferStats} of the handler,
+ * or only its wire size if it was never opened.
+ */
+public final class CompressedBody implements Closeable {
+
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    private static final int INFLATE_BUFFER_SIZE = 8192;
+
+    private final String contentEncoding;
+    private final TransferStats stats;
+    private List<ByteBuffer> buffers; // Released on close
+    private final long wireBytes;
+    private CountingInputStream decoded;
+    private boolean closed;
+
+    private CompressedBody(String contentEncoding, List<ByteBuffer> buffers, long wireBytes, TransferStats stats) {
+        this.contentEncoding = contentEncoding;
+        this.buffers = buffers;
+        this.wireBytes = wireBytes;
+        this.stats = stats;
+    }
+
+    /**
+     * Create a body handler to use with requests that send {@link #ACCEPT_ENCODING}.
+     * @param stats Receives the sizes of every closed body
+     * @return Body handler
+     */
+    public static HttpResponse.BodyHandler<CompressedBody> handler(TransferStats stats) {
+        return responseInfo -> new Collector(
+                responseInfo.headers().firstValue(CONTENT_ENCODING_HEADER).orElse("identity"), stats);
+    }
+
+    /**
+     * Open the decompressed body. Can only be opened once; closing the stream closes the body.
+     * @return Stream of the decoded bytes
+     * @throws IOException if the encoding is not supported or the compressed header is invalid
+     */
+    public synchronized InputStream open() throws IOException {
+        if (closed || decoded != null) {
+            throw new IOException("Response body already read");
+        }
+        decoded = new CountingInputStream(decompress(new BufferInputStream(buffers)));
+        return decoded;
+    }
+
+    /**
+     * Read the whole decoded body as text, e.g. for an error message.
+     */
+    public String readString() throws IOException {
+        try (InputStream in = open()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * Check if the server compressed the body.
+     */
+    public boolean isCompressed() {
+        return !"identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    /**
+     * Get the number of body bytes received.
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    /**
+     * Get the number of decoded bytes read so far.
+     */
+    public synchronized long getDecodedBytes() {
+        return decoded != null ? decoded.count : 0;
+    }
+
+    /**
+     * Release the buffers and record the sizes. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        long decodedBytes;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffers = null;
+            decodedBytes = decoded != null ? decoded.count : -1;
+        }
+        if (decodedBytes < 0) {
+            stats.recordUnread(wireBytes);
+        } else {
+            stats.record(wireBytes, decodedBytes);
+        }
+    }
+
+    private InputStream decompress(InputStream raw) throws IOException {
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(raw, INFLATE_BUFFER_SIZE);
+            case "deflate":
+                // Should be zlib-wrapped, but some servers send raw deflate data
+                return new OwnedInflaterInputStream(raw, new Inflater(!hasZlibHeader()));
+            case "identity":
+            case "":
+                return raw;
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    /**
+     * Check the first two body bytes for a zlib header: deflate method and a valid check value.
+     */
+    private boolean hasZlibHeader() {
+        int[] header = new int[2];
+        int found = 0;
+        for (ByteBuffer buffer : buffers) {
+            for (int i = buffer.position(); i < buffer.limit() && found < 2; i++) {
+                header[found++] = buffer.get(i) & 0xFF;
+            }
+        }
+        return found == 2 && (header[0] & 0x0F) == 8 && ((header[0] << 8) | header[1]) % 31 == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedBody{" + contentEncoding + ", " + wireBytes + " bytes}";
+    }
+
+    /**
+     * Collects the network buffers of a response without copying them.
+     */
+    private static final class Collector implements HttpResponse.BodySubscriber<CompressedBody> {
+
+        private final CompletableFuture<CompressedBody> body = new CompletableFuture<>();
+        private final String contentEncoding;
+        private final TransferStats stats;
+        private final List<ByteBuffer> buffers = new ArrayList<>();
+        private long wireBytes;
+
+        Collector(String contentEncoding, TransferStats stats) {
+            this.contentEncoding = contentEncoding;
+            this.stats = stats;
+        }
+
+        @Override
+        public CompletionStage<CompressedBody> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                wireBytes += item.remaining();
+                buffers.add(item);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            stats.recordUnread(wireBytes);
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(new CompressedBody(contentEncoding, buffers, wireBytes, stats));
+        }
+    }
+
+    /**
+     * Reads a list of buffers in order, without changing their positions.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final List<ByteBuffer> buffers;
+        private int index;
+        private ByteBuffer current;
+
+        BufferInputStream(List<ByteBuffer> buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer buffer = next();
+            return buffer == null ? -1 : buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer buffer = next();
+            if (buffer == null) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            ByteBuffer buffer = next();
+            return buffer == null ? 0 : buffer.remaining();
+        }
+
+        private ByteBuffer next() {
+            while (current == null || !current.hasRemaining()) {
+                if (index >= buffers.size()) {
+                    return null;
+                }
+                current = buffers.get(index++).duplicate();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Inflater stream that frees its own inflater on close.
+     */
+    private static final class OwnedInflaterInputStream extends InflaterInputStream {
+
+        OwnedInflaterInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater, INFLATE_BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+    /**
+     * Counts decoded bytes and closes the body with the stream.
+     */
+    private final class CountingInputStream extends FilterInputStream {
+
+        private long count; // Guarded by the body
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                add(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                add(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            add(skipped);
+            return skipped;
+        }
+
+        private void add(long n) {
+            synchronized (CompressedBody.this) {
+                count += n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                CompressedBody.this.close();
+            }
+        }
+    }
+}
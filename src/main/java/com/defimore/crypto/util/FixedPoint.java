@@ -0,0 +1,151 @@
+package com.defimore.crypto.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Utility methods for fixed-point decimal numbers stored as an unscaled long plus a scale.
+ * A value of 108699.99 is stored as unscaled 10869999 with scale 2.
+ */
+public class FixedPoint {
+
+    /**
+     * Maximum number of significant digits that always fits into a long.
+     */
+    public static final int MAX_DIGITS = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Parse the unscaled value of a plain decimal number, e.g. "108699.99000000".
+     * Trailing fractional zeros are dropped and digits beyond {@link #MAX_DIGITS} are truncated.
+     * @param buf Character buffer
+     * @param off Offset of the first character
+     * @param len Number of characters
+     * @return Unscaled value
+     * @throws NumberFormatException if the text is not a plain decimal number
+     */
+    public static long parseUnscaled(char[] buf, int off, int len) {
+        int end = trimmedEnd(buf, off, len);
+        int start = off;
+        boolean negative = false;
+        if (start < end && (buf[start] == '-' || buf[start] == '+')) {
+            negative = buf[start] == '-';
+            start++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        boolean seenPoint = false;
+        for (int i = start; i < end; i++) {
+            char c = buf[i];
+            if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c >= '0' && c <= '9') {
+                if (digits < MAX_DIGITS) {
+                    value = value * 10 + (c - '0');
+                    if (value != 0) {
+                        digits++;
+                    }
+                } else if (!seenPoint) {
+                    throw new NumberFormatException("Number too large: " + new String(buf, off, len));
+                }
+            } else {
+                throw new NumberFormatException("Invalid number: " + new String(buf, off, len));
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse the scale matching {@link #parseUnscaled(char[], int, int)} for the same text.
+     * @param buf Character buffer
+     * @param off Offset of the first character
+     * @param len Number of characters
+     * @return Number of fractional digits kept
+     */
+    public static int parseScale(char[] buf, int off, int len) {
+        int end = trimmedEnd(buf, off, len);
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (int i = off; i < end; i++) {
+            char c = buf[i];
+            if (c == '.') {
+                seenPoint = true;
+            } else if (c >= '0' && c <= '9') {
+                if (digits < MAX_DIGITS) {
+                    if (seenPoint) {
+                        scale++;
+                    }
+                    if (digits > 0 || c != '0') {
+                        digits++;
+                    }
+                }
+            }
+        }
+        return scale;
+    }
+
+    /**
+     * Convert a fixed-point value to BigDecimal. Only needed at API boundaries.
+     * @param unscaled Unscaled value
+     * @param scale Scale
+     * @return BigDecimal value
+     */
+    public static BigDecimal toBigDecimal(long unscaled, int scale) {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * Compare two fixed-point values that may have different scales.
+     * @return Negative, zero or positive as the first value is less than, equal to or greater than the second
+     */
+    public static int compare(long unscaled1, int scale1, long unscaled2, int scale2) {
+        if (scale1 == scale2) {
+            return Long.compare(unscaled1, unscaled2);
+        }
+        int difference = Math.abs(scale1 - scale2);
+        if (difference < POWERS_OF_TEN.length) {
+            try {
+                if (scale1 < scale2) {
+                    return Long.compare(Math.multiplyExact(unscaled1, POWERS_OF_TEN[difference]), unscaled2);
+                }
+                return Long.compare(unscaled1, Math.multiplyExact(unscaled2, POWERS_OF_TEN[difference]));
+            } catch (ArithmeticException e) {
+                // Fall through to the exact comparison
+            }
+        }
+        return toBigDecimal(unscaled1, scale1).compareTo(toBigDecimal(unscaled2, scale2));
+    }
+
+    /**
+     * Find the end of the number after removing trailing fractional zeros.
+     */
+    private static int trimmedEnd(char[] buf, int off, int len) {
+        int end = off + len;
+        int point = -1;
+        for (int i = off; i < end; i++) {
+            if (buf[i] == '.') {
+                point = i;
+                break;
+            }
+        }
+        if (point < 0) {
+            return end;
+        }
+        while (end > point + 1 && buf[end - 1] == '0') {
+            end--;
+        }
+        if (end == point + 1) {
+            end = point; // Drop a dangling decimal point
+        }
+        return end;
+    }
+}
@@ -0,0 +1,160 @@
+package com.defimore.crypto.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formats fixed-point prices straight into a char buffer.
+ * Output matches {@code DecimalFormat} with the same maximum fraction digits, no minimum fraction
+ * digits and HALF_EVEN rounding: trailing fractional zeros are dropped, and grouping is optional.
+ * Separators come from the default locale, like {@code new DecimalFormat()}.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class FixedPointFormatter {
+
+    /**
+     * Upper bound of characters written by one call, including sign and grouping separators.
+     */
+    public static final int MAX_CHARS = 48;
+
+    private static final long[] POWERS_OF_TEN = new long[FixedPoint.MAX_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final int fractionDigits;
+    private final boolean grouping;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+
+    public FixedPointFormatter(int fractionDigits, boolean grouping) {
+        this(fractionDigits, grouping, DecimalFormatSymbols.getInstance());
+    }
+
+    public FixedPointFormatter(int fractionDigits, boolean grouping, DecimalFormatSymbols symbols) {
+        this.fractionDigits = Math.max(0, Math.min(FixedPoint.MAX_DIGITS, fractionDigits));
+        this.grouping = grouping;
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.groupingSeparator = symbols.getGroupingSeparator();
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    public boolean isGrouping() {
+        return grouping;
+    }
+
+    /**
+     * Format a fixed-point value into a buffer without allocating.
+     * @param unscaled Unscaled value
+     * @param scale Scale of the value, at most {@link FixedPoint#MAX_DIGITS}
+     * @param dst Destination buffer with at least {@link #MAX_CHARS} free characters from {@code off}
+     * @param off Offset of the first character to write
+     * @return Offset after the last written character
+     */
+    public int format(long unscaled, int scale, char[] dst, int off) {
+        boolean negative = unscaled < 0;
+        long magnitude = negative ? -unscaled : unscaled; // Long.MIN_VALUE is not a price
+
+        // Round to the configured digits
+        int digits = scale;
+        if (scale > fractionDigits) {
+            int drop = scale - fractionDigits;
+            magnitude = drop < POWERS_OF_TEN.length ? roundHalfEven(magnitude, POWERS_OF_TEN[drop]) : 0;
+            digits = fractionDigits;
+        }
+
+        // Drop trailing fractional zeros
+        while (digits > 0 && magnitude % 10 == 0) {
+            magnitude /= 10;
+            digits--;
+        }
+
+        long integerPart;
+        long fractionPart;
+        if (digits <= 0) {
+            integerPart = digits == 0 ? magnitude : magnitude * POWERS_OF_TEN[-digits];
+            fractionPart = 0;
+            digits = 0;
+        } else {
+            integerPart = magnitude / POWERS_OF_TEN[digits];
+            fractionPart = magnitude % POWERS_OF_TEN[digits];
+        }
+
+        int pos = off;
+        if (negative) {
+            dst[pos++] = '-'; // Like DecimalFormat, also for values rounded to zero
+        }
+        pos = writeInteger(integerPart, dst, pos);
+        if (digits > 0) {
+            dst[pos++] = decimalSeparator;
+            for (int i = digits - 1; i >= 0; i--) {
+                dst[pos + i] = (char) ('0' + fractionPart % 10);
+                fractionPart /= 10;
+            }
+            pos += digits;
+        }
+        return pos;
+    }
+
+    /**
+     * Format a fixed-point value as a String.
+     */
+    public String format(long unscaled, int scale) {
+        char[] buffer = new char[MAX_CHARS];
+        return new String(buffer, 0, format(unscaled, scale, buffer, 0));
+    }
+
+    /**
+     * Format a BigDecimal, e.g. from a price map.
+     */
+    public String format(BigDecimal value) {
+        BigDecimal exact = value.scale() < 0 ? value.setScale(0, RoundingMode.UNNECESSARY) : value;
+        if (exact.scale() > FixedPoint.MAX_DIGITS || exact.unscaledValue().bitLength() > 63) {
+            // Out of the fixed-point range, which prices never are
+            DecimalFormat format = new DecimalFormat();
+            format.setMaximumFractionDigits(fractionDigits);
+            format.setMinimumFractionDigits(0);
+            format.setGroupingUsed(grouping);
+            return format.format(value);
+        }
+        return format(exact.unscaledValue().longValue(), exact.scale());
+    }
+
+    private int writeInteger(long value, char[] dst, int off) {
+        int length = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            length++;
+        }
+        int total = grouping ? length + (length - 1) / 3 : length;
+
+        int pos = off + total - 1;
+        long v = value;
+        for (int written = 0; written < length; written++) {
+            if (grouping && written > 0 && written % 3 == 0) {
+                dst[pos--] = groupingSeparator;
+            }
+            dst[pos--] = (char) ('0' + v % 10);
+            v /= 10;
+        }
+        return off + total;
+    }
+
+    private static long roundHalfEven(long magnitude, long divisor) {
+        long quotient = magnitude / divisor;
+        long remainder = magnitude % divisor;
+        long twice = remainder * 2; // divisor is at most 10^18, so this cannot overflow
+        if (twice > divisor || (twice == divisor && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
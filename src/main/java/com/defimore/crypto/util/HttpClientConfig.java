@@ -2,6 +2,8 @@ package com.defimore.crypto.util;
 
 import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for HTTP client configuration.
@@ -10,18 +12,57 @@ public class HttpClientConfig {
     
     private static final int CONNECT_TIMEOUT_SECONDS = 10;
     private static final int REQUEST_TIMEOUT_SECONDS = 10;
+    private static final long MIN_REQUEST_TIMEOUT_MS = 2000;
+    private static final int TIMEOUT_LATENCY_FACTOR = 4; // Timeout is this multiple of the p99 latency
+    private static final int HTTP_THREADS = 2; // Platform threads only run callbacks and decoding, requests are asynchronous
+    
+    private static volatile ExecutorService executor;
     
     /**
      * Create a configured HTTP client for API requests.
+     * The client runs on the plugin's own executor instead of the shared common pool.
      * @return Configured HttpClient instance
      */
     public static HttpClient createClient() {
         return HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(CONNECT_TIMEOUT_SECONDS))
                 .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(getExecutor())
                 .build();
     }
     
+    /**
+     * Get the executor used for HTTP callbacks, response decoding and listener dispatch.
+     * Its threads never wait on I/O, so a slow exchange cannot starve other IDE subsystems.
+     * Virtual threads are used when the runtime supports them.
+     * @return Shared executor, owned by the price service, which shuts it down on disposal
+     */
+    public static ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (HttpClientConfig.class) {
+                if (executor == null) {
+                    executor = ThreadManager.newTaskExecutor("CryptoPriceHttp-", HTTP_THREADS);
+                }
+            }
+        }
+        return executor;
+    }
+    
+    /**
+     * Shut down the shared executor, e.g. when the price service is disposed on plugin unload.
+     * Work already queued still runs. A later {@link #getExecutor()} creates a new executor.
+     */
+    public static void shutdown() {
+        ExecutorService current;
+        synchronized (HttpClientConfig.class) {
+            current = executor;
+            executor = null;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+    
     /**
      * Get the request timeout duration.
      * @return Request timeout duration
@@ -29,4 +70,19 @@ public class HttpClientConfig {
     public static Duration getRequestTimeout() {
         return Duration.ofSeconds(REQUEST_TIMEOUT_SECONDS);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Get a request timeout adapted to the latency observed for a host: a multiple of its p99,
+     * between {@link #MIN_REQUEST_TIMEOUT_MS} and the fixed request timeout.
+     * @param p99LatencyNanos Observed p99 latency, or a negative value if unknown
+     * @return Request timeout duration
+     */
+    public static Duration getRequestTimeout(long p99LatencyNanos) {
+        if (p99LatencyNanos < 0) {
+            return getRequestTimeout();
+        }
+        long timeoutMs = TimeUnit.NANOSECONDS.toMillis(p99LatencyNanos) * TIMEOUT_LATENCY_FACTOR;
+        return Duration.ofMillis(Math.max(MIN_REQUEST_TIMEOUT_MS,
+                Math.min(TimeUnit.SECONDS.toMillis(REQUEST_TIMEOUT_SECONDS), timeoutMs)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.defimore.crypto.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures what the plugin costs during project open.
+ * Widget construction runs on the project-open path; service startup runs afterwards in a
+ * background post-startup activity and is reported separately.
+ */
+public final class StartupMetrics {
+
+    private static final AtomicLong widgetShellNanos = new AtomicLong();
+    private static final AtomicInteger widgetShellCount = new AtomicInteger();
+    private static final AtomicLong serviceStartupNanos = new AtomicLong(-1);
+
+    private StartupMetrics() {
+    }
+
+    /**
+     * Record the construction time of one widget shell.
+     */
+    public static void recordWidgetShell(long nanos) {
+        widgetShellNanos.addAndGet(nanos);
+        widgetShellCount.incrementAndGet();
+    }
+
+    /**
+     * Record the time the background activity needed to create the services.
+     */
+    public static void recordServiceStartup(long nanos) {
+        serviceStartupNanos.set(nanos);
+    }
+
+    /**
+     * Get the total time spent on the project-open path, over all widgets.
+     */
+    public static long getProjectOpenNanos() {
+        return widgetShellNanos.get();
+    }
+
+    public static int getWidgetCount() {
+        return widgetShellCount.get();
+    }
+
+    /**
+     * Get the background service startup time.
+     * @return Nanoseconds, or -1 if the services have not started yet
+     */
+    public static long getServiceStartupNanos() {
+        return serviceStartupNanos.get();
+    }
+
+    /**
+     * Get a one-line summary, e.g. for the log or the About popup.
+     */
+    public static String getSummary() {
+        long service = serviceStartupNanos.get();
+        return String.format("Project open: %.2f ms (%d widgets), background startup: %s",
+                widgetShellNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                widgetShellCount.get(),
+                service < 0 ? "pending" : String.format("%.1f ms", service / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+}
@@ -1,15 +1,30 @@
 package com.defimore.crypto.util;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utility class for managing background threads.
+ * <p>
+ * On runtimes with virtual threads (JDK 21+) the scheduler thread only keeps time and every task
+ * runs on its own virtual thread. Older runtimes fall back to platform threads. Support is detected
+ * reflectively because the plugin is compiled for Java 11.
  */
 public class ThreadManager {
     
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findThreadPerTaskExecutor();
+    private static final Method OF_VIRTUAL = findOfVirtual();
+    
     private final ScheduledExecutorService scheduler;
+    private final ExecutorService taskExecutor; // Null when tasks run on the scheduler thread
     
     public ThreadManager() {
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
@@ -17,31 +32,81 @@ public class ThreadManager {
             t.setDaemon(true);
             return t;
         });
+        this.taskExecutor = newVirtualThreadExecutor("CryptoPriceTask-");
+    }
+    
+    /**
+     * Check if the runtime supports virtual threads.
+     * @return true on JDK 21 and later
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return NEW_THREAD_PER_TASK_EXECUTOR != null && OF_VIRTUAL != null;
+    }
+    
+    /**
+     * Create an executor for short tasks: one virtual thread per task when the runtime supports
+     * it, otherwise a fixed number of daemon platform threads.
+     * @param namePrefix Thread name prefix
+     * @param platformThreads Number of threads used without virtual thread support
+     * @return New executor
+     */
+    public static ExecutorService newTaskExecutor(String namePrefix, int platformThreads) {
+        ExecutorService virtual = newVirtualThreadExecutor(namePrefix);
+        return virtual != null ? virtual : newPlatformTaskExecutor(namePrefix, platformThreads);
+    }
+    
+    /**
+     * Create the platform thread executor that {@link #newTaskExecutor} falls back to.
+     * Also used to compare both modes on the same runtime.
+     */
+    static ExecutorService newPlatformTaskExecutor(String namePrefix, int platformThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(platformThreads, platformThreads,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, namePrefix + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        pool.allowCoreThreadTimeOut(true); // No idle threads between updates
+        return pool;
     }
     
     /**
      * Schedule a task to run periodically.
      * @param task Task to run
      * @param intervalMs Interval in milliseconds
+     * @return Future that cancels the task
      */
-    public void schedulePeriodicUpdate(Runnable task, long intervalMs) {
-        scheduler.scheduleAtFixedRate(task, 0, intervalMs, TimeUnit.MILLISECONDS);
+    public ScheduledFuture<?> schedulePeriodicUpdate(Runnable task, long intervalMs) {
+        return scheduler.scheduleAtFixedRate(dispatch(task), 0, intervalMs, TimeUnit.MILLISECONDS);
     }
     
     /**
      * Schedule a task to run once after a delay.
      * @param task Task to run
      * @param delayMs Delay in milliseconds
+     * @return Future that cancels the task if it has not started yet
      */
-    public void scheduleOnce(Runnable task, long delayMs) {
-        scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+    public ScheduledFuture<?> scheduleOnce(Runnable task, long delayMs) {
+        return scheduler.schedule(dispatch(task), delayMs, TimeUnit.MILLISECONDS);
     }
     
     /**
-     * Shutdown the thread manager and clean up resources.
+     * Check if tasks run on virtual threads.
+     */
+    public boolean isUsingVirtualThreads() {
+        return taskExecutor != null;
+    }
+    
+    /**
+     * Shutdown the thread manager and clean up resources. Waits up to 5 seconds for a running
+     * task, so it is meant for disposal only; cancel the returned futures to stop single tasks.
      */
     public void shutdown() {
         scheduler.shutdown();
+        if (taskExecutor != null) {
+            taskExecutor.shutdown();
+        }
         try {
             if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
@@ -59,4 +124,55 @@ public class ThreadManager {
     public boolean isShutdown() {
         return scheduler.isShutdown();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Wrap a task so the scheduler thread only hands it over to a virtual thread.
+     */
+    private Runnable dispatch(Runnable task) {
+        if (taskExecutor == null) {
+            return task;
+        }
+        return () -> {
+            if (!taskExecutor.isShutdown()) {
+                taskExecutor.execute(task);
+            }
+        };
+    }
+    
+    /**
+     * Create a thread-per-task executor with named virtual threads.
+     * @return Executor, or null if virtual threads are not available
+     */
+    private static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+        if (!isVirtualThreadsAvailable()) {
+            return null;
+        }
+        try {
+            // Thread.ofVirtual().name(namePrefix, 1).factory()
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.err.println("Virtual threads unavailable, using platform threads: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static Method findThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+    
+    private static Method findOfVirtual() {
+        try {
+            return Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.defimore.crypto.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts response body bytes as received on the wire and after decompression.
+ * Bodies that were never read, e.g. of a lost hedge or a failed transfer, are counted apart so
+ * they do not lower the compression ratio. Updated once per response; all methods are thread-safe.
+ */
+public final class TransferStats {
+
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+    private final AtomicLong unreadResponses = new AtomicLong();
+    private final AtomicLong unreadWireBytes = new AtomicLong();
+    private volatile long lastWireBytes;
+    private volatile long lastDecodedBytes;
+
+    /**
+     * Record one response.
+     * @param wire Body bytes received, compressed if the server compressed them
+     * @param decoded Body bytes read by the decoder after decompression
+     */
+    public void record(long wire, long decoded) {
+        responses.incrementAndGet();
+        wireBytes.addAndGet(wire);
+        decodedBytes.addAndGet(decoded);
+        lastWireBytes = wire;
+        lastDecodedBytes = decoded;
+    }
+
+    /**
+     * Record one response whose body was dropped without decoding it.
+     * @param wire Body bytes received
+     */
+    public void recordUnread(long wire) {
+        unreadResponses.incrementAndGet();
+        unreadWireBytes.addAndGet(wire);
+    }
+
+    /**
+     * Get the number of decoded responses.
+     */
+    public long getResponseCount() {
+        return responses.get();
+    }
+
+    /**
+     * Get the body bytes received for decoded responses.
+     */
+    public long getWireBytes() {
+        return wireBytes.get();
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes.get();
+    }
+
+    public long getUnreadResponseCount() {
+        return unreadResponses.get();
+    }
+
+    public long getUnreadWireBytes() {
+        return unreadWireBytes.get();
+    }
+
+    public long getLastWireBytes() {
+        return lastWireBytes;
+    }
+
+    public long getLastDecodedBytes() {
+        return lastDecodedBytes;
+    }
+
+    /**
+     * Get how many decoded bytes each received byte carried, e.g. 8.0 for gzip on JSON.
+     * Unread bodies are left out.
+     * @return Ratio, or 1 if nothing was decoded yet
+     */
+    public double getCompressionRatio() {
+        long wire = wireBytes.get();
+        return wire == 0 ? 1 : decodedBytes.get() / (double) wire;
+    }
+
+    @Override
+    public String toString() {
+        return responses.get() + " responses, " + wireBytes.get() / 1024 + " KB received, "
+                + decodedBytes.get() / 1024 + " KB decoded, " + unreadResponses.get() + " unread ("
+                + unreadWireBytes.get() / 1024 + " KB)";
+    }
+}
@@ -0,0 +1,146 @@
+package com.defimore.crypto.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorRecoveryManagerTest {
+
+    private static final long OPEN_MS = 200;
+
+    @Test
+    void opensAfterThreeConsecutiveFailures() {
+        ErrorRecoveryManager manager = new ErrorRecoveryManager();
+
+        manager.handleError(new IOException("first"));
+        manager.handleError(new IOException("second"));
+        assertEquals(ErrorRecoveryManager.State.CLOSED, manager.getState());
+        assertEquals(ErrorRecoveryManager.Permission.ALLOWED, manager.acquirePermission());
+
+        manager.handleError(new IOException("third"));
+        assertEquals(ErrorRecoveryManager.State.OPEN, manager.getState());
+        assertEquals(ErrorRecoveryManager.Permission.REJECTED, manager.acquirePermission());
+        assertTrue(manager.isInFallbackMode());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        ErrorRecoveryManager manager = new ErrorRecoveryManager();
+
+        manager.handleError(new IOException("first"));
+        manager.handleError(new IOException("second"));
+        manager.onSuccess();
+        manager.handleError(new IOException("third"));
+
+        assertEquals(ErrorRecoveryManager.State.CLOSED, manager.getState());
+        assertEquals(1, manager.getConsecutiveFailures());
+    }
+
+    @Test
+    void handsOutExactlyOneProbeToRacingThreads() throws Exception {
+        ErrorRecoveryManager manager = openCircuit();
+        Thread.sleep(OPEN_MS + 50);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ErrorRecoveryManager.Permission>> permissions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                permissions.add(executor.submit(() -> {
+                    start.await();
+                    return manager.acquirePermission();
+                }));
+            }
+            start.countDown();
+
+            int probes = 0;
+            for (Future<ErrorRecoveryManager.Permission> permission : permissions) {
+                ErrorRecoveryManager.Permission result = permission.get(5, TimeUnit.SECONDS);
+                if (result == ErrorRecoveryManager.Permission.PROBE) {
+                    probes++;
+                } else {
+                    assertEquals(ErrorRecoveryManager.Permission.REJECTED, result);
+                }
+            }
+            assertEquals(1, probes);
+            assertEquals(ErrorRecoveryManager.State.HALF_OPEN, manager.getState());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void probeSuccessClosesTheCircuit() throws Exception {
+        ErrorRecoveryManager manager = openCircuit();
+        Thread.sleep(OPEN_MS + 50);
+        assertEquals(ErrorRecoveryManager.Permission.PROBE, manager.acquirePermission());
+
+        manager.onSuccess();
+
+        assertEquals(ErrorRecoveryManager.State.CLOSED, manager.getState());
+        assertEquals(ErrorRecoveryManager.Permission.ALLOWED, manager.acquirePermission());
+        assertEquals(0, manager.getConsecutiveFailures());
+    }
+
+    @Test
+    void probeFailureReopensTheCircuit() throws Exception {
+        ErrorRecoveryManager manager = openCircuit();
+        Thread.sleep(OPEN_MS + 50);
+        assertEquals(ErrorRecoveryManager.Permission.PROBE, manager.acquirePermission());
+
+        manager.handleError(new IOException("still down"));
+
+        assertEquals(ErrorRecoveryManager.State.OPEN, manager.getState());
+        assertEquals(ErrorRecoveryManager.Permission.REJECTED, manager.acquirePermission()); // A new open period started
+    }
+
+    @Test
+    void replacesProbeThatNeverReported() throws Exception {
+        ErrorRecoveryManager manager = openCircuit();
+        Thread.sleep(OPEN_MS + 50);
+        assertEquals(ErrorRecoveryManager.Permission.PROBE, manager.acquirePermission());
+        assertEquals(ErrorRecoveryManager.Permission.REJECTED, manager.acquirePermission());
+
+        Thread.sleep(OPEN_MS + 50); // The first probe is lost
+
+        assertEquals(ErrorRecoveryManager.Permission.PROBE, manager.acquirePermission());
+        assertEquals(ErrorRecoveryManager.Permission.REJECTED, manager.acquirePermission());
+        assertEquals(ErrorRecoveryManager.State.HALF_OPEN, manager.getState());
+    }
+
+    @Test
+    void retryDelayStaysWithinJitterBounds() {
+        ErrorRecoveryManager manager = new ErrorRecoveryManager();
+        assertEquals(0, manager.getRetryDelay());
+
+        for (int failures = 1; failures <= 8; failures++) {
+            manager.handleError(new IOException("failure " + failures));
+            long delay = Math.min(1000L << Math.min(failures - 1, 5), 30000);
+            for (int i = 0; i < 200; i++) {
+                long retryDelay = manager.getRetryDelay();
+                assertTrue(retryDelay >= delay / 2 && retryDelay <= delay,
+                        failures + " failures: " + retryDelay + " not in [" + delay / 2 + ", " + delay + "]");
+            }
+        }
+    }
+
+    private static ErrorRecoveryManager openCircuit() {
+        ErrorRecoveryManager manager = new ErrorRecoveryManager(OPEN_MS);
+        for (int i = 0; i < 3; i++) {
+            manager.handleError(new IOException("down"));
+        }
+        assertEquals(ErrorRecoveryManager.State.OPEN, manager.getState());
+        return manager;
+    }
+}
@@ -0,0 +1,153 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.util.ThreadManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinanceStreamClientTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private StubWebSocketServer server;
+    private ThreadManager threadManager;
+    private BinanceStreamClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubWebSocketServer();
+        threadManager = new ThreadManager();
+        client = new BinanceStreamClient(HttpClient.newHttpClient(), threadManager, server.getUri(),
+                new BinanceStreamClient.Callback() {
+                    @Override
+                    public void onTicker(String tradingPair, long unscaled, int scale) {
+                        events.add(tradingPair + " " + BigDecimal.valueOf(unscaled, scale));
+                    }
+
+                    @Override
+                    public void onConnected() {
+                        events.add("connected");
+                    }
+
+                    @Override
+                    public void onDisconnected(Throwable error) {
+                        events.add("disconnected");
+                    }
+                });
+    }
+
+    @AfterEach
+    void stopServer() {
+        client.stop();
+        threadManager.shutdown();
+        server.close();
+    }
+
+    @Test
+    void subscribesOnlyTheDifference() throws Exception {
+        client.start(List.of("BTCUSDT", "ETHUSDT"));
+        StubWebSocketServer.Connection connection = connect();
+        assertEquals("{\"method\":\"SUBSCRIBE\",\"params\":[\"btcusdt@miniTicker\",\"ethusdt@miniTicker\"],\"id\":1}",
+                connection.nextText(TIMEOUT_MS));
+
+        client.updateSubscriptions(List.of("ETHUSDT", "SOLUSDT"));
+
+        assertEquals("{\"method\":\"UNSUBSCRIBE\",\"params\":[\"btcusdt@miniTicker\"],\"id\":2}",
+                connection.nextText(TIMEOUT_MS));
+        assertEquals("{\"method\":\"SUBSCRIBE\",\"params\":[\"solusdt@miniTicker\"],\"id\":3}",
+                connection.nextText(TIMEOUT_MS));
+
+        client.updateSubscriptions(List.of("SOLUSDT", "ETHUSDT")); // Same set, nothing to send
+        assertNull(connection.nextText(200));
+    }
+
+    @Test
+    void resubscribesEverythingAfterReconnect() throws Exception {
+        client.start(List.of("BTCUSDT"));
+        StubWebSocketServer.Connection first = connect();
+        assertNotNull(first.nextText(TIMEOUT_MS));
+
+        first.drop();
+        assertEquals("disconnected", events.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        waitForPendingReconnect();
+        client.updateSubscriptions(List.of("BTCUSDT", "ETHUSDT")); // Not connected, only remembered
+
+        StubWebSocketServer.Connection second = connect();
+        assertEquals("{\"method\":\"SUBSCRIBE\",\"params\":[\"btcusdt@miniTicker\",\"ethusdt@miniTicker\"],\"id\":2}",
+                second.nextText(TIMEOUT_MS));
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    void unwrapsCombinedStreamPayloads() throws Exception {
+        client.start(List.of("BTCUSDT", "ETHUSDT"));
+        StubWebSocketServer.Connection connection = connect();
+        assertNotNull(connection.nextText(TIMEOUT_MS));
+
+        connection.sendText("{\"result\":null,\"id\":1}"); // Acknowledgement is ignored
+        connection.sendText("{\"stream\":\"btcusdt@miniTicker\",\"data\":"
+                + "{\"e\":\"24hrMiniTicker\",\"E\":1760000000000,\"s\":\"BTCUSDT\",\"c\":\"108699.90\",\"o\":\"107000.00\"}}");
+        connection.sendText("{\"e\":\"24hrMiniTicker\",\"E\":1760000000001,\"s\":\"ETHUSDT\",\"c\":\"2450.12\"}");
+        connection.sendText("{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\",\"s\":\"BTCUSDT\",\"p\":\"1\"}}");
+
+        assertEquals("BTCUSDT 108699.9", events.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS)); // Trailing zeros are not kept
+        assertEquals("ETHUSDT 2450.12", events.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void stopCancelsPendingReconnect() throws Exception {
+        client.start(List.of("BTCUSDT"));
+        StubWebSocketServer.Connection connection = connect();
+
+        connection.drop();
+        assertEquals("disconnected", events.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        waitForPendingReconnect();
+
+        client.stop();
+
+        assertFalse(client.isReconnectPending());
+        assertNull(server.nextConnection(BinanceStreamClient.reconnectDelayMs(1) + 500));
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(1000, BinanceStreamClient.reconnectDelayMs(1));
+        assertEquals(2000, BinanceStreamClient.reconnectDelayMs(2));
+        assertEquals(4000, BinanceStreamClient.reconnectDelayMs(3));
+        assertEquals(16000, BinanceStreamClient.reconnectDelayMs(5));
+        assertEquals(30000, BinanceStreamClient.reconnectDelayMs(6));
+        assertEquals(30000, BinanceStreamClient.reconnectDelayMs(1000)); // No overflow
+    }
+
+    private StubWebSocketServer.Connection connect() throws InterruptedException {
+        StubWebSocketServer.Connection connection = server.nextConnection(TIMEOUT_MS);
+        assertNotNull(connection);
+        assertEquals("connected", events.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        return connection;
+    }
+
+    private void waitForPendingReconnect() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (!client.isReconnectPending()) {
+            assertTrue(System.nanoTime() < deadline, "No reconnect was scheduled");
+            Thread.sleep(10);
+        }
+    }
+}
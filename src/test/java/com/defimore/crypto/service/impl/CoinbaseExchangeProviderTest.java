@@ -0,0 +1,78 @@
+package com.defimore.crypto.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoinbaseExchangeProviderTest {
+
+    // Recorded from /api/v3/brokerage/market/products, shortened
+    private static final String PRODUCTS = "{\"products\":["
+            + "{\"product_id\":\"BTC-USD\",\"price\":\"108699.99\",\"volume_24h\":\"8123.5\",\"base_currency_id\":\"BTC\"},"
+            + "{\"price\":\"2450.1\",\"product_id\":\"ETH-USD\",\"quote_currency_id\":\"USD\"},"
+            + "{\"product_id\":\"NEW-USD\",\"price\":\"\",\"status\":\"online\"}],"
+            + "\"num_products\":3}";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Map<Integer, BigDecimal> prices = new ConcurrentHashMap<>();
+    private StubHttpServer server;
+    private CoinbaseExchangeProvider provider;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubHttpServer();
+        provider = new CoinbaseExchangeProvider(server.getBaseUrl());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void readsAllProductsInOneRequest() throws Exception {
+        server.respond(200, PRODUCTS);
+
+        fetch(List.of("BTC", "ETH", "NEW", "NOPE"));
+
+        assertEquals(List.of("/api/v3/brokerage/market/products?product_ids=BTC-USD&product_ids=ETH-USD"
+                + "&product_ids=NEW-USD&product_ids=NOPE-USD"), server.getRequests());
+        assertEquals(Map.of(0, new BigDecimal("108699.99"), 1, new BigDecimal("2450.1")), prices);
+    }
+
+    @Test
+    void keepsOtherQuotes() throws Exception {
+        server.respond(200, "{\"products\":[{\"product_id\":\"ETH-BTC\",\"price\":\"0.02254\"}]}");
+
+        provider.fetchPrices(client, List.of("ETH"), "BTC", (index, unscaled, scale) ->
+                prices.put(index, BigDecimal.valueOf(unscaled, scale))).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Map.of(0, new BigDecimal("0.02254")), prices);
+    }
+
+    @Test
+    void failsOnHttpError() {
+        server.respond(429, "{\"error\":\"rate_limit_exceeded\"}");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetch(List.of("BTC")));
+        assertTrue(e.getCause().getMessage().startsWith("Coinbase HTTP 429"), e.getCause().getMessage());
+    }
+
+    private void fetch(List<String> symbols) throws Exception {
+        provider.fetchPrices(client, symbols, "USDT", (index, unscaled, scale) ->
+                prices.put(index, BigDecimal.valueOf(unscaled, scale))).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.defimore.crypto.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EndpointPoolTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final EndpointPool pool = new EndpointPool(List.of("https://a.example", "https://b.example"));
+    private final EndpointPool.Endpoint a = pool.getEndpoints().get(0);
+    private final EndpointPool.Endpoint b = pool.getEndpoints().get(1);
+
+    @Test
+    void firstHostIsDefaultUntilMeasured() {
+        assertSame(a, pool.select());
+        assertSame(b, pool.selectHedge(a));
+    }
+
+    @Test
+    void failingHostIsSkippedIncludingExploration() {
+        for (int i = 0; i < 10; i++) {
+            a.record(5 * MS, false); // E.g. HTTP 451 answered fast
+        }
+
+        assertFalse(a.isHealthy());
+        for (int i = 0; i < 64; i++) {
+            assertSame(b, pool.select());
+        }
+        assertNull(pool.selectHedge(b));
+    }
+
+    @Test
+    void latencyPercentileNeedsEnoughSamples() {
+        for (int i = 1; i < 8; i++) {
+            b.record(i * 10 * MS, true);
+        }
+        assertEquals(-1, b.getLatencyPercentile(0.95));
+
+        b.record(80 * MS, true);
+        b.record(1, false); // Failures are not latency samples
+        assertEquals(80 * MS, b.getLatencyPercentile(0.95));
+        assertEquals(40 * MS, b.getLatencyPercentile(0.5));
+    }
+}
@@ -0,0 +1,142 @@
+package com.defimore.crypto.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KrakenExchangeProviderTest {
+
+    // Recorded from /0/public/Ticker?pair=XBTUSD,SOLUSD,XDGUSD, shortened
+    private static final String TICKER = "{\"error\":[],\"result\":{"
+            + "\"SOLUSD\":{\"a\":[\"151.10\",\"12\",\"12.000\"],\"c\":[\"151.09\",\"0.52\"],\"v\":[\"1\",\"2\"]},"
+            + "\"XDGUSD\":{\"c\":[\"0.1623400\",\"100.00000000\"],\"h\":[\"0.17\",\"0.17\"]},"
+            + "\"XXBTZUSD\":{\"a\":[\"108700.00000\",\"1\",\"1.000\"],\"c\":[\"108699.90000\",\"0.00100000\"]}}}";
+
+    // Recorded from /0/public/AssetPairs, shortened; BNB is not listed
+    private static final String ASSET_PAIRS = "{\"error\":[],\"result\":{"
+            + "\"SOLUSD\":{\"altname\":\"SOLUSD\",\"wsname\":\"SOL/USD\",\"base\":\"SOL\",\"quote\":\"ZUSD\",\"fees\":[[0,0.4]]},"
+            + "\"XDGUSD\":{\"altname\":\"XDGUSD\",\"wsname\":\"XDG/USD\",\"base\":\"XXDG\",\"quote\":\"ZUSD\"},"
+            + "\"XXBTZUSD\":{\"altname\":\"XBTUSD\",\"wsname\":\"XBT/USD\",\"base\":\"XXBT\",\"quote\":\"ZUSD\"}}}";
+    private static final String ASSET_PAIRS_REQUEST = "/0/public/AssetPairs";
+    private static final String UNKNOWN_PAIR = "{\"error\":[\"EQuery:Unknown asset pair\"]}";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Map<Integer, BigDecimal> prices = new ConcurrentHashMap<>();
+    private StubHttpServer server;
+    private KrakenExchangeProvider provider;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubHttpServer();
+        provider = new KrakenExchangeProvider(server.getBaseUrl());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void readsLegacyAndCurrentPairNames() throws Exception {
+        server.respond(ASSET_PAIRS_REQUEST, ASSET_PAIRS).respond(200, TICKER);
+
+        fetch(List.of("BTC", "SOL", "DOGE"));
+
+        assertEquals(List.of(ASSET_PAIRS_REQUEST, "/0/public/Ticker?pair=XBTUSD,SOLUSD,XDGUSD"), server.getRequests());
+        assertEquals(Map.of(
+                0, new BigDecimal("108699.9"),
+                1, new BigDecimal("151.09"),
+                2, new BigDecimal("0.16234")), prices); // Trailing zeros are not kept
+    }
+
+    @Test
+    void skipsPairsKrakenDoesNotList() throws Exception {
+        server.respond(ASSET_PAIRS_REQUEST, ASSET_PAIRS).respond(200, TICKER);
+
+        fetch(List.of("BTC", "BNB", "SOL", "DOGE"));
+
+        assertEquals("/0/public/Ticker?pair=XBTUSD,SOLUSD,XDGUSD", server.getRequests().get(1));
+        assertEquals(Map.of(
+                0, new BigDecimal("108699.9"),
+                2, new BigDecimal("151.09"),
+                3, new BigDecimal("0.16234")), prices); // Indexes of the requested list
+    }
+
+    @Test
+    void skipsRequestWhenNoPairIsListed() throws Exception {
+        server.respond(ASSET_PAIRS_REQUEST, ASSET_PAIRS).respond(200, TICKER);
+
+        fetch(List.of("BNB"));
+
+        assertEquals(List.of(ASSET_PAIRS_REQUEST), server.getRequests());
+        assertTrue(prices.isEmpty());
+    }
+
+    @Test
+    void loadsListedPairsOnce() throws Exception {
+        server.respond(ASSET_PAIRS_REQUEST, ASSET_PAIRS).respond(200, TICKER);
+
+        fetch(List.of("BTC"));
+        fetch(List.of("SOL"));
+
+        assertEquals(1, server.getRequests().stream().filter(ASSET_PAIRS_REQUEST::equals).count());
+    }
+
+    @Test
+    void requestsAllPairsWithoutListedPairs() throws Exception {
+        server.respond(ASSET_PAIRS_REQUEST, "{\"error\":[\"EService:Unavailable\"],\"result\":{}}").respond(200, TICKER);
+
+        fetch(List.of("BTC", "SOL"));
+
+        assertEquals("/0/public/Ticker?pair=XBTUSD,SOLUSD", server.getRequests().get(1));
+        assertEquals(2, prices.size());
+    }
+
+    @Test
+    void failsOnUnknownPairAndReloadsListedPairs() throws Exception {
+        server.respond(ASSET_PAIRS_REQUEST, ASSET_PAIRS).respond(200, UNKNOWN_PAIR); // Delisted since the list was loaded
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetch(List.of("BTC")));
+        assertTrue(e.getCause().getMessage().contains("Kraken error: EQuery:Unknown asset pair"), e.getCause().getMessage());
+        assertTrue(prices.isEmpty());
+
+        server.respond(200, TICKER);
+        fetch(List.of("BTC"));
+
+        assertEquals(2, server.getRequests().stream().filter(ASSET_PAIRS_REQUEST::equals).count());
+        assertEquals(Map.of(0, new BigDecimal("108699.9")), prices);
+    }
+
+    @Test
+    void failsOnHttpError() {
+        server.respond(520, "<html>origin error</html>");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetch(List.of("BTC")));
+        assertTrue(e.getCause().getMessage().startsWith("Kraken HTTP 520"), e.getCause().getMessage());
+    }
+
+    @Test
+    void mapsAssetCodes() {
+        assertEquals("XBT", KrakenExchangeProvider.toKrakenAsset("BTC"));
+        assertEquals("XDG", KrakenExchangeProvider.toKrakenAsset("DOGE"));
+        assertEquals("ETH", KrakenExchangeProvider.toKrakenAsset("ETH"));
+    }
+
+    private void fetch(List<String> symbols) throws Exception {
+        provider.fetchPrices(client, symbols, "USDT", (index, unscaled, scale) ->
+                prices.put(index, BigDecimal.valueOf(unscaled, scale))).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,87 @@
+package com.defimore.crypto.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OkxExchangeProviderTest {
+
+    // Recorded from /api/v5/market/tickers?instType=SPOT, shortened
+    private static final String TICKERS = "{\"code\":\"0\",\"msg\":\"\",\"data\":["
+            + "{\"instType\":\"SPOT\",\"instId\":\"BTC-USDT\",\"last\":\"108699.9\",\"lastSz\":\"0.0001\",\"askPx\":\"108700\"},"
+            + "{\"instType\":\"SPOT\",\"last\":\"2450.12\",\"instId\":\"ETH-USDT\",\"lastSz\":\"0.5\"},"
+            + "{\"instType\":\"SPOT\",\"instId\":\"BTC-USDC\",\"last\":\"108690.1\"},"
+            + "{\"instType\":\"SPOT\",\"instId\":\"NEW-USDT\",\"last\":\"\",\"lastSz\":\"\"}]}";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Map<Integer, BigDecimal> prices = new ConcurrentHashMap<>();
+    private StubHttpServer server;
+    private OkxExchangeProvider provider;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubHttpServer();
+        provider = new OkxExchangeProvider(server.getBaseUrl());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void readsRequestedPairsFromAllTickers() throws Exception {
+        server.respond(200, TICKERS);
+
+        fetch(List.of("BTC", "ETH", "NEW", "XRP"));
+
+        assertEquals(Map.of(0, new BigDecimal("108699.9"), 1, new BigDecimal("2450.12")), prices);
+        assertEquals(List.of("/api/v5/market/tickers?instType=SPOT"), server.getRequests());
+    }
+
+    @Test
+    void decompressesGzipResponses() throws Exception {
+        server.respond(200, TICKERS).gzip();
+
+        fetch(List.of("BTC"));
+
+        assertEquals(Map.of(0, new BigDecimal("108699.9")), prices);
+        assertEquals(TICKERS.length(), provider.getTransferStats().getDecodedBytes());
+        assertTrue(provider.getTransferStats().getWireBytes() < TICKERS.length());
+    }
+
+    @Test
+    void failsOnErrorCode() {
+        server.respond(200, "{\"code\":\"50011\",\"msg\":\"Too Many Requests\",\"data\":[]}");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetch(List.of("BTC")));
+        assertTrue(e.getCause().getMessage().contains("OKX error 50011: Too Many Requests"), e.getCause().getMessage());
+    }
+
+    @Test
+    void failsOnHttpError() {
+        server.respond(503, "{\"msg\":\"Service unavailable\"}");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> fetch(List.of("BTC")));
+        assertTrue(e.getCause().getMessage().startsWith("OKX HTTP 503"), e.getCause().getMessage());
+        assertEquals(1, provider.getTransferStats().getResponseCount()); // Error body was closed
+    }
+
+    private void fetch(List<String> symbols) throws Exception {
+        provider.fetchPrices(client, symbols, "USDT", (index, unscaled, scale) ->
+                prices.put(index, BigDecimal.valueOf(unscaled, scale))).get(5, TimeUnit.SECONDS);
+    }
+}
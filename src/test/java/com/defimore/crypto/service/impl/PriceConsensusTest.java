@@ -0,0 +1,77 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PriceConsensusTest {
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+    private final int btc = dictionary.intern("BTCUSDT");
+    private final int eth = dictionary.intern("ETHUSDT");
+    private final int sol = dictionary.intern("SOLUSDT");
+    private final int[] ids = {btc, eth, sol};
+
+    @Test
+    void oddCountTakesMiddlePrice() {
+        PriceTable merged = PriceConsensus.median(List.of(
+                table(btc, "108700.5"),
+                table(btc, "250000"), // Wrong source is ignored
+                table(btc, "108699.99")), ids, dictionary, 42);
+
+        assertEquals(new BigDecimal("108700.5"), merged.getPrice(btc));
+        assertEquals(42, merged.getLastUpdate());
+    }
+
+    @Test
+    void evenCountTakesMeanOfMiddlePrices() {
+        PriceTable two = PriceConsensus.median(List.of(
+                table(btc, "100.1"),
+                table(btc, "100.25")), ids, dictionary, 42);
+        PriceTable four = PriceConsensus.median(List.of(
+                table(btc, "1"),
+                table(btc, "3"),
+                table(btc, "4"),
+                table(btc, "1000")), ids, dictionary, 42);
+
+        assertEquals(new BigDecimal("100.175"), two.getPrice(btc));
+        assertEquals(new BigDecimal("3.5"), four.getPrice(btc));
+    }
+
+    @Test
+    void meanOfEqualPricesKeepsValue() {
+        PriceTable merged = PriceConsensus.median(List.of(
+                table(btc, "2450.10"),
+                table(btc, "2450.1")), ids, dictionary, 42);
+
+        assertEquals(0, new BigDecimal("2450.1").compareTo(merged.getPrice(btc)));
+    }
+
+    @Test
+    void symbolsMissingFromSomeSourcesUseTheOthers() {
+        PriceTable merged = PriceConsensus.median(List.of(
+                table(btc, "100", eth, "10"),
+                table(btc, "102"),
+                table(btc, "101", eth, "12")), ids, dictionary, 42);
+
+        assertEquals(new BigDecimal("101"), merged.getPrice(btc));
+        assertEquals(new BigDecimal("11"), merged.getPrice(eth));
+        assertFalse(merged.has(sol)); // No source has a price
+        assertEquals(2, merged.size());
+    }
+
+    private PriceTable table(Object... idsAndPrices) {
+        PriceTable.Builder builder = PriceTable.empty(dictionary).toBuilder(1);
+        for (int i = 0; i < idsAndPrices.length; i += 2) {
+            BigDecimal price = new BigDecimal((String) idsAndPrices[i + 1]);
+            builder.put((Integer) idsAndPrices[i], price.unscaledValue().longValueExact(), price.scale());
+        }
+        return builder.build();
+    }
+}
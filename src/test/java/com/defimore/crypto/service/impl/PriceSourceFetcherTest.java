@@ -0,0 +1,125 @@
+package com.defimore.crypto.service.impl;
+
+import com.defimore.crypto.model.CryptoPluginConfig;
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import com.defimore.crypto.service.ErrorRecoveryManager;
+import com.defimore.crypto.service.ExchangeProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriceSourceFetcherTest {
+
+    private static final String OKX_TICKERS = "{\"code\":\"0\",\"msg\":\"\",\"data\":["
+            + "{\"instType\":\"SPOT\",\"instId\":\"BTC-USDT\",\"last\":\"108699.9\"},"
+            + "{\"instType\":\"SPOT\",\"instId\":\"ETH-USDT\",\"last\":\"2450.12\"}]}";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+    private final List<String> symbols = List.of("BTC", "ETH");
+    private final int[] ids = {dictionary.intern("BTC"), dictionary.intern("ETH")};
+    private final List<String> tradingPairs = List.of("BTCUSDT", "ETHUSDT");
+    private final AtomicInteger binanceCalls = new AtomicInteger();
+    private final CryptoPluginConfig config = new CryptoPluginConfig();
+    private StubHttpServer okxServer;
+    private PriceSourceFetcher fetcher;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        okxServer = new StubHttpServer();
+        OkxExchangeProvider okx = new OkxExchangeProvider(okxServer.getBaseUrl());
+
+        // Binance is unreachable in every test
+        fetcher = new PriceSourceFetcher(client, dictionary, (config, ids, pairs) -> {
+            binanceCalls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("Binance unreachable"));
+        }, sourceIds -> {
+            List<ExchangeProvider> providers = new ArrayList<>();
+            if (sourceIds.contains(OkxExchangeProvider.ID)) {
+                providers.add(okx);
+            }
+            return providers;
+        });
+    }
+
+    @AfterEach
+    void stopServer() {
+        okxServer.close();
+    }
+
+    @Test
+    void probesThroughNonBinanceSources() throws Exception {
+        okxServer.respond(200, OKX_TICKERS);
+        config.setPriceSources(List.of(OkxExchangeProvider.ID));
+        ErrorRecoveryManager breaker = openCircuit();
+
+        PriceTable table = fetcher.probe(breaker, config, symbols, ids, tradingPairs).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ErrorRecoveryManager.State.CLOSED, breaker.getState());
+        assertEquals(0, binanceCalls.get());
+        assertEquals(2, okxServer.getRequests().size()); // Probe, then all symbols
+        assertEquals(new BigDecimal("108699.9"), table.getPrice("BTC"));
+        assertEquals(new BigDecimal("2450.12"), table.getPrice("ETH"));
+    }
+
+    @Test
+    void probeSucceedsWhileBinanceIsStillDown() throws Exception {
+        okxServer.respond(200, OKX_TICKERS);
+        config.setPriceSources(List.of(CryptoPluginConfig.BINANCE_SOURCE, OkxExchangeProvider.ID));
+        ErrorRecoveryManager breaker = openCircuit();
+
+        PriceTable table = fetcher.probe(breaker, config, symbols, ids, tradingPairs).get(5, TimeUnit.SECONDS);
+
+        assertEquals(ErrorRecoveryManager.State.CLOSED, breaker.getState());
+        assertEquals(2, binanceCalls.get());
+        assertEquals(new BigDecimal("2450.12"), table.getPrice("ETH"));
+    }
+
+    @Test
+    void probeFailsWhenNoSourceAnswers() throws Exception {
+        okxServer.respond(503, "{\"msg\":\"Service unavailable\"}");
+        config.setPriceSources(List.of(CryptoPluginConfig.BINANCE_SOURCE, OkxExchangeProvider.ID));
+        ErrorRecoveryManager breaker = openCircuit();
+
+        assertThrows(ExecutionException.class,
+                () -> fetcher.probe(breaker, config, symbols, ids, tradingPairs).get(5, TimeUnit.SECONDS));
+
+        assertEquals(ErrorRecoveryManager.State.HALF_OPEN, breaker.getState()); // The caller reports the failure
+        assertEquals(1, okxServer.getRequests().size()); // Only the probe was sent
+    }
+
+    @Test
+    void usesBinanceAloneByDefault() {
+        assertThrows(ExecutionException.class,
+                () -> fetcher.fetch(config, symbols, ids, tradingPairs).get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, binanceCalls.get());
+        assertEquals(0, okxServer.getRequests().size());
+    }
+
+    /**
+     * Open the circuit and take the probe permission, as the price service does.
+     */
+    private static ErrorRecoveryManager openCircuit() {
+        ErrorRecoveryManager breaker = new ErrorRecoveryManager(0);
+        for (int i = 0; i < 3; i++) {
+            breaker.handleError(new IOException("down"));
+        }
+        assertEquals(ErrorRecoveryManager.Permission.PROBE, breaker.acquirePermission());
+        return breaker;
+    }
+}
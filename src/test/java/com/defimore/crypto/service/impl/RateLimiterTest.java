@@ -0,0 +1,188 @@
+package com.defimore.crypto.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private StubHttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubHttpServer();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void queuesRequestsUntilRetryAfterSecondsOn429() throws Exception {
+        server.respond(429, "{\"code\":-1003}").header(RateLimiter.RETRY_AFTER_HEADER, "1");
+
+        RateLimitException e = assertThrows(RateLimitException.class, this::sendAndReport);
+        assertFalse(e.isBanned());
+        assertEquals(1000, e.getRetryAfterMs());
+
+        // Refreshes made during the window wait for it and are then sent, in order
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> refreshes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            refreshes.add(rateLimiter.acquire(BatchPlanner.SYMBOLS_WEIGHT));
+        }
+        assertTrue(refreshes.stream().noneMatch(CompletableFuture::isDone));
+        for (CompletableFuture<Void> refresh : refreshes) {
+            refresh.get(5, TimeUnit.SECONDS);
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+        assertFalse(rateLimiter.isBanned());
+    }
+
+    @Test
+    void readsRetryAfterHttpDate() throws Exception {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(3));
+        server.respond(429, "{\"code\":-1003}").header(RateLimiter.RETRY_AFTER_HEADER, date);
+
+        RateLimitException e = assertThrows(RateLimitException.class, this::sendAndReport);
+
+        assertTrue(e.getRetryAfterMs() > 1000 && e.getRetryAfterMs() <= 3000, Long.toString(e.getRetryAfterMs()));
+        assertTrue(rateLimiter.getMillisUntilAllowed() > 1000);
+        assertFalse(rateLimiter.acquire(BatchPlanner.SYMBOLS_WEIGHT).isDone()); // Queued, not failed
+    }
+
+    @Test
+    void waitsOneMinuteOn429WithoutRetryAfter() throws Exception {
+        server.respond(429, "{\"code\":-1003}");
+
+        RateLimitException e = assertThrows(RateLimitException.class, this::sendAndReport);
+        assertEquals(60000, e.getRetryAfterMs());
+
+        // Longer than a refresh may queue, so it fails right away
+        RateLimitException queued = acquireFailure(BatchPlanner.SYMBOLS_WEIGHT);
+        assertFalse(queued.isBanned());
+        assertTrue(queued.getRetryAfterMs() > 30000, Long.toString(queued.getRetryAfterMs()));
+    }
+
+    @Test
+    void stopsRequestsOn418WithRetryAfter() throws Exception {
+        server.respond(418, "{\"code\":-1003}").header(RateLimiter.RETRY_AFTER_HEADER, "300");
+
+        RateLimitException e = assertThrows(RateLimitException.class, this::sendAndReport);
+        assertTrue(e.isBanned());
+        assertEquals(300000, e.getRetryAfterMs());
+        assertTrue(rateLimiter.isBanned());
+
+        RateLimitException queued = acquireFailure(BatchPlanner.SYMBOLS_WEIGHT);
+        assertTrue(queued.isBanned());
+        assertTrue(queued.getMessage().startsWith("IP banned by Binance"), queued.getMessage());
+        assertFalse(rateLimiter.tryAcquire(BatchPlanner.SYMBOLS_WEIGHT));
+    }
+
+    @Test
+    void assumesTwoMinuteBanOn418WithoutRetryAfter() throws Exception {
+        server.respond(418, "{\"code\":-1003}");
+
+        RateLimitException e = assertThrows(RateLimitException.class, this::sendAndReport);
+
+        assertTrue(e.isBanned());
+        assertEquals(120000, e.getRetryAfterMs());
+        assertTrue(rateLimiter.isBanned());
+    }
+
+    @Test
+    void shortBanStillQueuesRequests() throws Exception {
+        server.respond(418, "{\"code\":-1003}").header(RateLimiter.RETRY_AFTER_HEADER, "1");
+
+        assertThrows(RateLimitException.class, this::sendAndReport);
+        CompletableFuture<Void> refresh = rateLimiter.acquire(BatchPlanner.SYMBOLS_WEIGHT);
+
+        assertFalse(refresh.isDone());
+        refresh.get(5, TimeUnit.SECONDS);
+        assertFalse(rateLimiter.isBanned());
+    }
+
+    @Test
+    void limitsBucketToUsedWeightHeader() throws Exception {
+        int used = RateLimiter.DEFAULT_WEIGHT_LIMIT - 10;
+        server.respond(200, "[]").header(RateLimiter.USED_WEIGHT_HEADER, Integer.toString(used));
+
+        sendAndReport();
+
+        assertTrue(rateLimiter.getAvailableWeight() <= 11, Integer.toString(rateLimiter.getAvailableWeight()));
+        assertTrue(rateLimiter.acquire(BatchPlanner.SYMBOLS_WEIGHT).isDone());
+        CompletableFuture<Void> overBudget = rateLimiter.acquire(20); // Waits for the bucket to refill
+        assertFalse(overBudget.isDone());
+        overBudget.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void readsLegacyUsedWeightHeader() throws Exception {
+        server.respond(200, "[]").header(RateLimiter.LEGACY_USED_WEIGHT_HEADER, "5000");
+
+        sendAndReport();
+
+        assertTrue(rateLimiter.getAvailableWeight() <= 1001, Integer.toString(rateLimiter.getAvailableWeight()));
+    }
+
+    @Test
+    void blocksUntilNextMinuteWhenWeightIsUsedUp() throws Exception {
+        server.respond(200, "[]").header(RateLimiter.USED_WEIGHT_HEADER, Integer.toString(RateLimiter.DEFAULT_WEIGHT_LIMIT));
+
+        sendAndReport();
+
+        long wait = rateLimiter.getMillisUntilAllowed();
+        assertTrue(wait > 0 && wait <= 60000, Long.toString(wait));
+        assertFalse(rateLimiter.tryAcquire(BatchPlanner.SINGLE_SYMBOL_WEIGHT));
+        assertFalse(rateLimiter.isBanned());
+    }
+
+    @Test
+    void ignoresMalformedHeaders() throws Exception {
+        server.respond(429, "{\"code\":-1003}")
+                .header(RateLimiter.USED_WEIGHT_HEADER, "lots")
+                .header(RateLimiter.RETRY_AFTER_HEADER, "soon");
+
+        RateLimitException e = assertThrows(RateLimitException.class, this::sendAndReport);
+
+        assertEquals(60000, e.getRetryAfterMs()); // Default for 429
+        assertEquals(RateLimiter.DEFAULT_WEIGHT_LIMIT, rateLimiter.getAvailableWeight());
+    }
+
+    /**
+     * Send a request to the stub and pass the response to the limiter, like the price service does.
+     */
+    private void sendAndReport() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/api/v3/ticker/price")).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        rateLimiter.onResponse(response.statusCode(), response.headers());
+    }
+
+    private RateLimitException acquireFailure(int weight) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rateLimiter.acquire(weight).get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RateLimitException, e.getCause().toString());
+        return (RateLimitException) e.getCause();
+    }
+}
@@ -0,0 +1,108 @@
+package com.defimore.crypto.service.impl;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local HTTP server that answers every request with one recorded response, unless a response
+ * was recorded for the request path.
+ */
+final class StubHttpServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, String> pathBodies = new ConcurrentHashMap<>(); // Always answered with 200
+    private final Map<String, String> headers = new ConcurrentHashMap<>();
+    private volatile int status = 200;
+    private volatile String body = "";
+    private volatile boolean gzip;
+
+    StubHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestURI().toString());
+            String pathBody = pathBodies.get(exchange.getRequestURI().getPath());
+            int status = pathBody != null ? 200 : this.status;
+            byte[] bytes = (pathBody != null ? pathBody : body).getBytes(StandardCharsets.UTF_8);
+            if (gzip) {
+                bytes = gzip(bytes);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            headers.forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Answer all following requests with this response.
+     */
+    StubHttpServer respond(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * Answer requests for this path, ignoring the query, with status 200 and this body.
+     */
+    StubHttpServer respond(String path, String body) {
+        pathBodies.put(path, body);
+        return this;
+    }
+
+    /**
+     * Add a header to all following responses.
+     */
+    StubHttpServer header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    StubHttpServer gzip() {
+        this.gzip = true;
+        return this;
+    }
+
+    String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Get the path and query of every request received.
+     */
+    List<String> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
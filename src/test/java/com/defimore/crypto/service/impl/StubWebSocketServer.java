@@ -0,0 +1,223 @@
+package com.defimore.crypto.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local WebSocket server that records the text frames of every connection.
+ * Only unfragmented frames are supported, which is all the stream client sends.
+ */
+final class StubWebSocketServer implements AutoCloseable {
+
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<Connection> accepted = new LinkedBlockingQueue<>();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+
+    StubWebSocketServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "StubWebSocketServer-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    URI getUri() {
+        return URI.create("ws://" + serverSocket.getInetAddress().getHostAddress() + ":"
+                + serverSocket.getLocalPort() + "/ws");
+    }
+
+    /**
+     * Wait for the next client to complete the handshake.
+     * @return The connection, or null on timeout
+     */
+    Connection nextConnection(long timeoutMs) throws InterruptedException {
+        return accepted.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        for (Connection connection : connections) {
+            connection.drop();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Connection connection = new Connection(socket);
+                connection.handshake();
+                connections.add(connection);
+                accepted.add(connection);
+                Thread reader = new Thread(connection::readLoop, "StubWebSocketServer-read");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                // Closed, or a client that gave up during the handshake
+            }
+        }
+    }
+
+    /**
+     * One accepted client.
+     */
+    static final class Connection {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+        private final BlockingQueue<String> texts = new LinkedBlockingQueue<>();
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        /**
+         * Wait for the next text frame sent by the client.
+         * @return The text, or null on timeout
+         */
+        String nextText(long timeoutMs) throws InterruptedException {
+            return texts.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Send an unmasked text frame to the client.
+         */
+        void sendText(String text) throws IOException {
+            writeFrame(0x1, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Close the TCP connection without a close handshake, like a dropped network.
+         */
+        void drop() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void handshake() throws IOException {
+            String key = null;
+            for (String line = readLine(socket.getInputStream()); !line.isEmpty(); line = readLine(socket.getInputStream())) {
+                if (line.toLowerCase(Locale.ROOT).startsWith("sec-websocket-key:")) {
+                    key = line.substring(line.indexOf(':') + 1).trim();
+                }
+            }
+            if (key == null) {
+                socket.close();
+                throw new IOException("Not a WebSocket upgrade");
+            }
+
+            String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept(key) + "\r\n\r\n";
+            out.write(response.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        private void readLoop() {
+            try {
+                while (true) {
+                    int first = in.readUnsignedByte();
+                    int second = in.readUnsignedByte();
+                    long length = second & 0x7F;
+                    if (length == 126) {
+                        length = in.readUnsignedShort();
+                    } else if (length == 127) {
+                        length = in.readLong();
+                    }
+                    byte[] mask = new byte[4];
+                    if ((second & 0x80) != 0) {
+                        in.readFully(mask);
+                    }
+                    byte[] payload = new byte[(int) length];
+                    in.readFully(payload);
+                    for (int i = 0; i < payload.length; i++) {
+                        payload[i] ^= mask[i & 3];
+                    }
+
+                    int opcode = first & 0x0F;
+                    if (opcode == 0x1) {
+                        texts.add(new String(payload, StandardCharsets.UTF_8));
+                    } else if (opcode == 0x8) {
+                        writeFrame(0x8, payload); // Echo the close and hang up
+                        drop();
+                        return;
+                    } else if (opcode == 0x9) {
+                        writeFrame(0xA, payload);
+                    }
+                }
+            } catch (IOException e) {
+                drop();
+            }
+        }
+
+        private synchronized void writeFrame(int opcode, byte[] payload) throws IOException {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 4);
+            frame.write(0x80 | opcode);
+            if (payload.length < 126) {
+                frame.write(payload.length);
+            } else {
+                frame.write(126);
+                frame.write(payload.length >>> 8);
+                frame.write(payload.length & 0xFF);
+            }
+            frame.write(payload, 0, payload.length);
+            out.write(frame.toByteArray());
+            out.flush();
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) {
+                    throw new IOException("Connection closed during handshake");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        private static String accept(String key) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-1")
+                        .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+                return Base64.getEncoder().encodeToString(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.defimore.crypto.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickJournalTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+
+    @TempDir
+    Path directory;
+
+    // Future days are never compacted or deleted by the background pass
+    private final long day = Math.floorDiv(System.currentTimeMillis(), DAY_MS) + 1;
+    private final long dayStart = day * DAY_MS;
+
+    @Test
+    void blockIndexFindsFirstBlockThatCanMatch() {
+        TickJournal.BlockIndex index = new TickJournal.BlockIndex();
+        for (int i = 0; i < 1000; i++) {
+            index.add(i);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(0, index.firstRecord(0));
+        assertEquals(2 * TickJournal.INDEX_INTERVAL, index.firstRecord(600));
+        assertEquals(3 * TickJournal.INDEX_INTERVAL, index.firstRecord(5000));
+    }
+
+    @Test
+    void closedSegmentIsReadThroughPersistedIndex() throws IOException {
+        try (TickJournal journal = new TickJournal(directory)) {
+            for (int i = 0; i < 1000; i++) {
+                journal.append("BTC", dayStart + i * 1000L, i, 2);
+            }
+            journal.append("BTC", dayStart + DAY_MS, 1000, 2); // Rolls over and closes the first day
+        }
+
+        Path index = TickJournal.indexPath(segment(day));
+        assertTrue(Files.exists(index));
+        assertNotNull(TickJournal.BlockIndex.read(index, 1000));
+        assertNull(TickJournal.BlockIndex.read(index, 999)); // Does not match a rewritten segment
+
+        try (TickJournal journal = new TickJournal(directory)) {
+            List<Long> prices = new ArrayList<>();
+            int count = journal.read("BTC", dayStart + 600_000, dayStart + 700_000,
+                    (symbolId, timestamp, unscaled, scale) -> prices.add(unscaled));
+
+            assertEquals(100, count);
+            assertEquals(600L, prices.get(0));
+            assertEquals(699L, prices.get(99));
+        }
+    }
+
+    @Test
+    void compactionKeepsLastTickPerSymbolAndMinute() throws IOException {
+        try (TickJournal journal = new TickJournal(directory)) {
+            journal.append("BTC", dayStart, 1, 0);
+            journal.append("BTC", dayStart + 10_000, 2, 0);
+            journal.append("ETH", dayStart + 5_000, 10, 0);
+            journal.append("BTC", dayStart + MINUTE_MS, 4, 0);
+            for (int i = 0; i < 5000; i++) { // More than one read chunk
+                journal.append("SOL", dayStart + 2 * MINUTE_MS + i, i, 0);
+            }
+            journal.append("BTC", dayStart + 30_000, 5, 0); // Late tick for the first minute
+        }
+
+        TickJournal.compact(segment(day));
+        TickJournal.compact(segment(day)); // Already compacted, nothing to do
+
+        try (TickJournal journal = new TickJournal(directory)) {
+            List<String> ticks = new ArrayList<>();
+            int count = journal.read(-1, dayStart, dayStart + DAY_MS,
+                    (symbolId, timestamp, unscaled, scale) ->
+                            ticks.add(journal.symbolName(symbolId) + "@" + (timestamp - dayStart) + "=" + unscaled));
+
+            assertEquals(4, count);
+            assertEquals(List.of("ETH@5000=10", "BTC@60000=4", "SOL@124999=4999", "BTC@30000=5"), ticks);
+        }
+        assertNotNull(TickJournal.BlockIndex.read(TickJournal.indexPath(segment(day)), 4));
+    }
+
+    private Path segment(long day) {
+        return directory.resolve("ticks-" + LocalDate.ofEpochDay(day) + ".bin");
+    }
+}
@@ -0,0 +1,63 @@
+package com.defimore.crypto.ui;
+
+import com.defimore.crypto.model.PriceTable;
+import com.defimore.crypto.model.SymbolDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PriceLineRendererTest {
+
+    private static final char DOT = DecimalFormatSymbols.getInstance().getDecimalSeparator(); // Renderer uses the default locale
+
+    private final SymbolDictionary dictionary = new SymbolDictionary();
+    private final int btc = dictionary.intern("BTC");
+    private final int eth = dictionary.intern("ETH");
+    private final List<String> symbols = List.of("BTC", "ETH", "SOL");
+    private final PriceLineRenderer renderer = new PriceLineRenderer();
+
+    @Test
+    void rendersSymbolsWithPricesInOrder() {
+        PriceTable table = PriceTable.empty(dictionary).toBuilder(1)
+                .put(eth, 245012, 2)
+                .put(btc, 1087005, 1)
+                .build();
+
+        assertEquals("[ BTC: 108700" + DOT + "5 | ETH: 2450" + DOT + "12 ]", renderer.render(symbols, table, 3, "[ ", " ]"));
+    }
+
+    @Test
+    void returnsNullWithoutPrices() {
+        PriceTable empty = PriceTable.empty(dictionary);
+
+        assertNull(renderer.render(symbols, empty, 3, "", ""));
+    }
+
+    @Test
+    void reusesLineUntilSomethingVisibleChanges() {
+        PriceTable table = PriceTable.empty(dictionary).toBuilder(1).put(btc, 1087005, 1).build();
+        String first = renderer.render(symbols, table, 2, "", "");
+
+        PriceTable sameText = PriceTable.empty(dictionary).toBuilder(2).put(btc, 10870050, 2).build();
+        assertSame(first, renderer.render(symbols, sameText, 2, "", ""));
+
+        PriceTable changed = PriceTable.empty(dictionary).toBuilder(3).put(btc, 1087006, 1).build();
+        String second = renderer.render(symbols, changed, 2, "", "");
+        assertNotSame(first, second);
+        assertEquals("BTC: 108700" + DOT + "6", second);
+    }
+
+    @Test
+    void appliesNewFractionDigits() {
+        PriceTable table = PriceTable.empty(dictionary).toBuilder(1).put(btc, 108700555, 3).build();
+
+        assertEquals("BTC: 108700" + DOT + "56", renderer.render(symbols, table, 2, "", ""));
+        assertEquals("BTC: 108701", renderer.render(symbols, table, 0, "", ""));
+    }
+}
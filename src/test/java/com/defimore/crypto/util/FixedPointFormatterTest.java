@@ -0,0 +1,82 @@
+package com.defimore.crypto.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixedPointFormatterTest {
+
+    private static final DecimalFormatSymbols US = DecimalFormatSymbols.getInstance(Locale.US);
+
+    @Test
+    void matchesDecimalFormatOnRandomPrices() {
+        Random random = new Random(42); // Fixed seed, the same cases on every run
+        for (int digits = 0; digits <= 8; digits++) {
+            for (boolean grouping : new boolean[]{false, true}) {
+                FixedPointFormatter formatter = new FixedPointFormatter(digits, grouping, US);
+                DecimalFormat reference = decimalFormat(digits, grouping);
+                for (int i = 0; i < 2000; i++) {
+                    long unscaled = random.nextLong() % 1_000_000_000_000L;
+                    int scale = random.nextInt(13);
+                    assertEquals(reference.format(BigDecimal.valueOf(unscaled, scale)),
+                            formatter.format(unscaled, scale),
+                            () -> unscaled + "e-" + scale + " with " + formatter.getFractionDigits() + " digits");
+                }
+            }
+        }
+    }
+
+    @Test
+    void roundsHalfEven() {
+        FixedPointFormatter formatter = new FixedPointFormatter(2, false, US);
+
+        assertEquals("0.12", formatter.format(125, 3));
+        assertEquals("0.14", formatter.format(135, 3));
+        assertEquals("0.13", formatter.format(1251, 4));
+        assertEquals("1", formatter.format(9999, 4));
+        assertEquals("-0", formatter.format(-1, 3)); // Like DecimalFormat
+    }
+
+    @Test
+    void dropsTrailingZerosAndGroups() {
+        FixedPointFormatter formatter = new FixedPointFormatter(3, true, US);
+
+        assertEquals("108,700.5", formatter.format(1087005000, 4));
+        assertEquals("1,000", formatter.format(new BigDecimal("1E+3")));
+        assertEquals("0", formatter.format(0, 8));
+    }
+
+    @Test
+    void usesSeparatorsOfSymbols() {
+        FixedPointFormatter formatter = new FixedPointFormatter(2, true, DecimalFormatSymbols.getInstance(Locale.GERMANY));
+
+        assertEquals("1.234,57", formatter.format(1234567, 3));
+    }
+
+    @Test
+    void writesIntoBufferAtOffset() {
+        FixedPointFormatter formatter = new FixedPointFormatter(4, false, US);
+        char[] buffer = new char[4 + FixedPointFormatter.MAX_CHARS];
+        "BTC:".getChars(0, 4, buffer, 0);
+
+        int end = formatter.format(10870055, 2, buffer, 4);
+
+        assertEquals("BTC:108700.55", new String(buffer, 0, end));
+    }
+
+    private static DecimalFormat decimalFormat(int digits, boolean grouping) {
+        DecimalFormat format = new DecimalFormat("#,##0.#", US);
+        format.setMaximumFractionDigits(digits);
+        format.setMinimumFractionDigits(0);
+        format.setGroupingUsed(grouping);
+        format.setRoundingMode(RoundingMode.HALF_EVEN);
+        return format;
+    }
+}
@@ -0,0 +1,37 @@
+package com.defimore.crypto.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpClientConfigTest {
+
+    @Test
+    void sharesOneExecutorUntilShutdown() throws Exception {
+        ExecutorService executor = HttpClientConfig.getExecutor();
+        assertSame(executor, HttpClientConfig.getExecutor());
+
+        HttpClientConfig.shutdown();
+
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS)); // No threads are left behind
+        ExecutorService next = HttpClientConfig.getExecutor();
+        assertNotSame(executor, next);
+        assertFalse(next.isShutdown());
+        assertEquals("ok", next.submit(() -> "ok").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shutdownWithoutExecutorDoesNothing() {
+        HttpClientConfig.shutdown();
+        HttpClientConfig.shutdown();
+
+        assertFalse(HttpClientConfig.getExecutor().isShutdown());
+    }
+}
@@ -0,0 +1,99 @@
+package com.defimore.crypto.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the virtual and platform task executors under many concurrent symbol batch fetches.
+ * Every batch blocks for a simulated exchange round trip and then decodes its symbols. Reports the
+ * peak number of live platform threads and the p50/p99 latency from submission to completion.
+ * Run with {@code gradle benchmark}; the regular test task skips it.
+ */
+@Tag("benchmark")
+class ThreadManagerBenchmark {
+
+    private static final int BATCHES = 1000;
+    private static final int SYMBOLS_PER_BATCH = 100;
+    private static final long ROUND_TRIP_MS = 50;
+    private static final int PLATFORM_THREADS = 16;
+    private static final int ROUNDS = 3; // The first round only warms up
+
+    private static final AtomicLong sink = new AtomicLong();
+
+    @Test
+    void virtualThreads() throws Exception {
+        assumeTrue(ThreadManager.isVirtualThreadsAvailable(), "Virtual threads need JDK 21");
+        run("virtual", () -> ThreadManager.newTaskExecutor("BenchTask-", PLATFORM_THREADS));
+    }
+
+    @Test
+    void platformThreads() throws Exception {
+        run("platform", () -> ThreadManager.newPlatformTaskExecutor("BenchTask-", PLATFORM_THREADS));
+    }
+
+    private static void run(String mode, Supplier<ExecutorService> factory) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < ROUNDS; round++) {
+            ExecutorService executor = factory.get();
+            long[] latencies = new long[BATCHES];
+            CountDownLatch done = new CountDownLatch(BATCHES);
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            try {
+                for (int i = 0; i < BATCHES; i++) {
+                    int batch = i;
+                    long submitted = System.nanoTime();
+                    executor.execute(() -> {
+                        fetchBatch(batch);
+                        latencies[batch] = System.nanoTime() - submitted;
+                        done.countDown();
+                    });
+                }
+                assertTrue(done.await(5, TimeUnit.MINUTES), mode + " batches did not finish");
+            } finally {
+                executor.shutdown();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (round > 0) {
+                Arrays.sort(latencies);
+                System.out.printf("%-8s round %d: %d batches, peak live threads %d, p50 %.1f ms, p99 %.1f ms, total %.0f ms%n",
+                        mode, round, BATCHES, threads.getPeakThreadCount(),
+                        millis(latencies[BATCHES / 2]), millis(latencies[BATCHES * 99 / 100]), millis(elapsed));
+            }
+        }
+    }
+
+    /**
+     * Stand-in for one ticker request: wait for the response, then parse every symbol's price.
+     */
+    private static void fetchBatch(int batch) {
+        try {
+            Thread.sleep(ROUND_TRIP_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long checksum = 0;
+        for (int i = 0; i < SYMBOLS_PER_BATCH; i++) {
+            checksum += Long.parseLong(Integer.toString(batch * SYMBOLS_PER_BATCH + i));
+        }
+        sink.addAndGet(checksum);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.defimore.crypto.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreadManagerTest {
+
+    private final ThreadManager threadManager = new ThreadManager();
+
+    @AfterEach
+    void shutdown() {
+        threadManager.shutdown();
+    }
+
+    @Test
+    void detectsVirtualThreadsFromRuntime() {
+        assertEquals(Runtime.version().feature() >= 21, ThreadManager.isVirtualThreadsAvailable());
+        assertEquals(ThreadManager.isVirtualThreadsAvailable(), threadManager.isUsingVirtualThreads());
+    }
+
+    @Test
+    void taskExecutorRunsConcurrentTasksOnNamedDaemonThreads() throws Exception {
+        ExecutorService executor = ThreadManager.newTaskExecutor("TestTask-", 2);
+        try {
+            int tasks = 100;
+            CountDownLatch done = new CountDownLatch(tasks);
+            Set<String> names = ConcurrentHashMap.newKeySet();
+            Set<Boolean> daemon = ConcurrentHashMap.newKeySet();
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    names.add(Thread.currentThread().getName());
+                    daemon.add(Thread.currentThread().isDaemon());
+                    done.countDown();
+                });
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertTrue(names.stream().allMatch(name -> name.startsWith("TestTask-")), names::toString);
+            assertEquals(Set.of(true), daemon); // Never keeps the IDE process alive
+            if (!ThreadManager.isVirtualThreadsAvailable()) {
+                assertTrue(names.size() <= 2, names::toString);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void scheduledTasksRunOnTaskThreadsWhenVirtual() throws Exception {
+        AtomicReference<String> threadName = new AtomicReference<>();
+        CountDownLatch ran = new CountDownLatch(1);
+
+        threadManager.scheduleOnce(() -> {
+            threadName.set(Thread.currentThread().getName());
+            ran.countDown();
+        }, 10);
+
+        assertTrue(ran.await(10, TimeUnit.SECONDS));
+        String expected = ThreadManager.isVirtualThreadsAvailable() ? "CryptoPriceTask-" : "CryptoPriceUpdater";
+        assertTrue(threadName.get().startsWith(expected), threadName.get());
+    }
+
+    @Test
+    void periodicTasksRepeatUntilShutdown() throws Exception {
+        CountDownLatch runs = new CountDownLatch(3);
+
+        threadManager.schedulePeriodicUpdate(runs::countDown, 5);
+
+        assertTrue(runs.await(10, TimeUnit.SECONDS));
+        threadManager.shutdown();
+        assertTrue(threadManager.isShutdown());
+    }
+}
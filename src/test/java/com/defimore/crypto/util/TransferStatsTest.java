@@ -0,0 +1,29 @@
+package com.defimore.crypto.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransferStatsTest {
+
+    @Test
+    void ratioStartsAtOne() {
+        assertEquals(1.0, new TransferStats().getCompressionRatio());
+    }
+
+    @Test
+    void unreadBodiesAreLeftOutOfRatio() {
+        TransferStats stats = new TransferStats();
+        stats.record(1000, 8000);
+        stats.recordUnread(1000); // Lost hedge
+        stats.recordUnread(200); // Failed transfer
+
+        assertEquals(8.0, stats.getCompressionRatio());
+        assertEquals(1, stats.getResponseCount());
+        assertEquals(1000, stats.getWireBytes());
+        assertEquals(2, stats.getUnreadResponseCount());
+        assertEquals(1200, stats.getUnreadWireBytes());
+        assertEquals(1000, stats.getLastWireBytes());
+        assertEquals(8000, stats.getLastDecodedBytes());
+    }
+}